@@ -0,0 +1,128 @@
+package com.thecloudcode.cc.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.thecloudcode.cc.dto.CollectionReport;
+import com.thecloudcode.cc.models.FeedSource;
+import com.thecloudcode.cc.services.BulkIngestService;
+import com.thecloudcode.cc.services.FeedSourceService;
+import com.thecloudcode.cc.services.HostGuardService;
+
+@RestController
+@RequestMapping("/api/admin/feeds")
+public class FeedSourceController {
+
+    @Autowired
+    private FeedSourceService feedSourceService;
+
+    @Autowired
+    private HostGuardService hostGuard;
+
+    @Autowired
+    private BulkIngestService bulkIngestService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listSources() {
+        Map<String, Object> response = new HashMap<>();
+        List<FeedSource> sources = feedSourceService.getAllSources();
+        response.put("success", true);
+        response.put("sources", sources);
+        response.put("count", sources.size());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/hosts")
+    public ResponseEntity<Map<String, Object>> hostStates() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("hosts", hostGuard.getHostStates());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> addSource(@RequestBody Map<String, String> payload) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            String name = payload.get("name");
+            String url = payload.get("url");
+            if (name == null || name.isBlank() || url == null || !url.startsWith("http")) {
+                response.put("success", false);
+                response.put("message", "Please provide a feed name and an http(s) URL.");
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            FeedSource source = feedSourceService.addSource(name.trim(), url.trim());
+            response.put("success", true);
+            response.put("source", source);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Could not add feed: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Imports saved feeds from a directory of XML files or a local OPML file,
+     * e.g. {"path": "/data/feed-archive"}.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importFeeds(@RequestBody Map<String, String> payload) {
+        Map<String, Object> response = new HashMap<>();
+
+        String path = payload.get("path");
+        if (path == null || path.isBlank()) {
+            response.put("success", false);
+            response.put("message", "Please provide the path of a feed directory or OPML file.");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            CollectionReport report = bulkIngestService.ingest(path.trim());
+            response.put("success", true);
+            response.put("message", "Imported " + report.getTotalCollected() + " articles");
+            response.put("report", report);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Import failed: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping("/{id}/enable")
+    public ResponseEntity<Map<String, Object>> enableSource(@PathVariable Long id) {
+        return updateEnabled(id, true);
+    }
+
+    @PostMapping("/{id}/disable")
+    public ResponseEntity<Map<String, Object>> disableSource(@PathVariable Long id) {
+        return updateEnabled(id, false);
+    }
+
+    private ResponseEntity<Map<String, Object>> updateEnabled(Long id, boolean enabled) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            FeedSource source = feedSourceService.setEnabled(id, enabled);
+            response.put("success", true);
+            response.put("source", source);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
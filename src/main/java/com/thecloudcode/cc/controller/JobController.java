@@ -0,0 +1,44 @@
+package com.thecloudcode.cc.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.thecloudcode.cc.dto.Job;
+import com.thecloudcode.cc.services.JobService;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    @Autowired
+    private JobService jobService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listJobs() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("jobs", jobService.getJobs());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String id) {
+        Map<String, Object> response = new HashMap<>();
+        Job job = jobService.getJob(id);
+        if (job == null) {
+            response.put("success", false);
+            response.put("message", "Job not found: " + id);
+            return ResponseEntity.status(404).body(response);
+        }
+        response.put("success", true);
+        response.put("job", job);
+        return ResponseEntity.ok(response);
+    }
+}
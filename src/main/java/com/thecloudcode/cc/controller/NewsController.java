@@ -1,17 +1,22 @@
 package com.thecloudcode.cc.controller;
 
+import com.thecloudcode.cc.dto.CollectionReport;
 import com.thecloudcode.cc.dto.ProcessedArticle;
 import com.thecloudcode.cc.models.NewsArticle;
 import com.thecloudcode.cc.repository.NewsArticleRepository;
 import com.thecloudcode.cc.services.*;
+import com.thecloudcode.cc.util.VectorIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -31,12 +36,50 @@ public class NewsController {
 
     @Autowired
     private NewsletterSchedulerService schedulerService;
+
+    @Autowired
+    private ArticleDeduplicationService deduplicationService;
+
+    @Autowired
+    private ImageEnrichmentService imageEnrichmentService;
+
+    @Autowired
+    private NearDuplicateDetector nearDuplicateDetector;
+
+    @Autowired
+    private EnrichmentCacheService enrichmentCache;
+
+    @Autowired
+    private OpenAiExecutor openAiExecutor;
+
+    @Autowired
+    private OpenAiServiceClient openAiClient;
+
+    @Autowired
+    private LocalCategoryClassifier categoryClassifier;
+
+    @Autowired
+    private OpenAiUsageTracker usageTracker;
+
+    @Autowired
+    private OpenAiResilience openAiResilience;
+
+    @Autowired
+    private NewsletterStreamService newsletterStreamService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private IngestEnrichmentService ingestEnrichmentService;
+
+    @Autowired
+    private ArticleEmbeddingStore embeddingStore;
     
     
     @PostMapping("/newsletter/trigger")
-    public ResponseEntity<?> triggerNewsletterJob() {
-        schedulerService.sendDailyNewsletter();
-        return ResponseEntity.ok().body("Newsletter job triggered");
+    public ResponseEntity<Map<String, Object>> triggerNewsletterJob() {
+        return submitted(schedulerService::submitDailyNewsletter, "Newsletter job triggered");
     }
 
 
@@ -46,11 +89,13 @@ public class NewsController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            int totalCollected = rssCollectorService.collectFromAllSources();
+            CollectionReport report = rssCollectorService.collectFromAllSourcesWithReport();
+            int totalCollected = report.getTotalCollected();
             
             response.put("success", true);
             response.put("message", "Successfully collected " + totalCollected + " new articles");
             response.put("articlesCollected", totalCollected);
+            response.put("report", report);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -59,6 +104,75 @@ public class NewsController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+    @GetMapping("/dedup-stats")
+    public ResponseEntity<Map<String, Object>> getDedupStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("stats", deduplicationService.getStats());
+        response.put("nearDuplicates", nearDuplicateDetector.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/enrichment-stats")
+    public ResponseEntity<Map<String, Object>> getEnrichmentStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("cache", enrichmentCache.getStats());
+        response.put("executor", openAiExecutor.getStats());
+        response.put("batches", openAiClient.getBatchStats());
+        response.put("classifier", categoryClassifier.getStats());
+        response.put("ingest", ingestEnrichmentService.getStats());
+        response.put("embeddings", embeddingStore.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/openai-usage")
+    public ResponseEntity<Map<String, Object>> getOpenAiUsage() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("usage", usageTracker.getUsage());
+        response.put("resilience", openAiResilience.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/similar/{id}")
+    public ResponseEntity<Map<String, Object>> getSimilarArticles(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "5") int k) {
+        Map<String, Object> response = new HashMap<>();
+        NewsArticle article = articleRepository.findById(id).orElse(null);
+        if (article == null) {
+            response.put("success", false);
+            response.put("message", "Article not found: " + id);
+            return ResponseEntity.status(404).body(response);
+        }
+
+        List<VectorIndex.Match> matches = embeddingStore.similarTo(article, Math.max(1, Math.min(k, 50)));
+        Map<Long, NewsArticle> byId = articleRepository.findAllById(matches.stream().map(VectorIndex.Match::id).toList())
+            .stream().collect(Collectors.toMap(NewsArticle::getId, found -> found));
+        List<Map<String, Object>> similar = matches.stream()
+            .filter(match -> byId.containsKey(match.id()))
+            .map(match -> {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("article", byId.get(match.id()));
+                entry.put("similarity", match.similarity());
+                return entry;
+            })
+            .collect(Collectors.toList());
+
+        response.put("success", true);
+        response.put("articleId", id);
+        response.put("similar", similar);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/image-stats")
+    public ResponseEntity<Map<String, Object>> getImageStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("stats", imageEnrichmentService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/cached-latest")
     public ResponseEntity<Map<String, Object>> getCachedLatestArticles() {
         Map<String, Object> response = new HashMap<>();
@@ -151,80 +265,83 @@ public ResponseEntity<Map<String, Object>> getFeaturedArticles() {
     }
 }
 
-      @PostMapping("/process")
+    /**
+     * Server-sent-events version of /generate-newsletter: streams each article
+     * as it is enriched, then the top articles, then the subject and preview.
+     */
+    @GetMapping(value = "/generate-newsletter/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNewsletter() {
+        return newsletterStreamService.streamNewsletter();
+    }
+
+    @PostMapping("/process")
     public ResponseEntity<Map<String, Object>> processArticles() {
-        Map<String, Object> response = new HashMap<>();
-        
-        try {
+        return submitted(() -> jobService.submit("process", JobService.PROCESSING_KEY, job -> {
             System.out.println("Starting OpenAI content processing...");
-            
-            List<ProcessedArticle> processedArticles = contentProcessingService.processRecentArticles();
+            job.setPhase("processing articles");
+            List<ProcessedArticle> processedArticles = contentProcessingService.processRecentArticles(processed -> job.incrementItemsProcessed());
+            job.setPhase("selecting top articles");
             List<ProcessedArticle> topArticles = contentProcessingService.selectTopArticles(processedArticles);
-            
-            response.put("success", true);
-            response.put("message", "OpenAI processed " + processedArticles.size() + " articles, selected " + topArticles.size() + " for newsletter");
-            response.put("processedCount", processedArticles.size());
-            response.put("selectedCount", topArticles.size());
-            response.put("topArticles", topArticles);
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", "Error processing articles with OpenAI: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.badRequest().body(response);
-        }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("message", "OpenAI processed " + processedArticles.size() + " articles, selected " + topArticles.size() + " for newsletter");
+            result.put("processedCount", processedArticles.size());
+            result.put("selectedCount", topArticles.size());
+            result.put("topArticles", topArticles);
+            return result;
+        }), "Article processing started");
     }
     
     @PostMapping("/generate-newsletter")
     public ResponseEntity<Map<String, Object>> generateNewsletter() {
-        Map<String, Object> response = new HashMap<>();
-        
-        try {
+        return submitted(() -> jobService.submit("generate-newsletter", JobService.PROCESSING_KEY, job -> {
             System.out.println("Generating newsletter with OpenAI...");
-            
-            // Process recent articles with OpenAI
-            List<ProcessedArticle> processedArticles = contentProcessingService.processRecentArticles();
+            job.setPhase("processing articles");
+            List<ProcessedArticle> processedArticles = contentProcessingService.processRecentArticles(processed -> job.incrementItemsProcessed());
+            job.setPhase("selecting top articles");
             List<ProcessedArticle> topArticles = contentProcessingService.selectTopArticles(processedArticles);
-            
+
             if (topArticles.isEmpty()) {
-                response.put("success", false);
-                response.put("message", "No articles available for newsletter generation");
-                return ResponseEntity.badRequest().body(response);
+                throw new IllegalStateException("No articles available for newsletter generation");
             }
-            
-            // Generate newsletter preview
+
+            job.setPhase("writing newsletter");
             String newsletterPreview = contentProcessingService.generateNewsletterPreview(topArticles);
-            
-            response.put("success", true);
-            response.put("message", "Newsletter generated successfully with " + topArticles.size() + " articles");
-            response.put("newsletter", newsletterPreview);
-            response.put("topArticles", topArticles);
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", "Error generating newsletter: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.badRequest().body(response);
-        }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("message", "Newsletter generated successfully with " + topArticles.size() + " articles");
+            result.put("newsletter", newsletterPreview);
+            result.put("topArticles", topArticles);
+            return result;
+        }), "Newsletter generation started");
     }
 
 
     @PostMapping("/send-daily")
     public ResponseEntity<Map<String, Object>> sendDailyNewsletterNow() {
+        return submitted(schedulerService::submitDailyNewsletter, "Daily newsletter send started");
+    }
+
+    /**
+     * Submits a job and answers 202 with its id, or points at the job already
+     * running when an identical one is in flight.
+     */
+    private ResponseEntity<Map<String, Object>> submitted(Supplier<JobService.Submission> submit, String message) {
         Map<String, Object> response = new HashMap<>();
         try {
-            schedulerService.sendDailyNewsletter();
+            JobService.Submission submission = submit.get();
             response.put("success", true);
-            response.put("message", "Daily newsletter sent successfully.");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
+            response.put("message", submission.duplicate()
+                ? "A " + submission.job().getType() + " job covering this work is already in progress" : message);
+            response.put("jobId", submission.job().getId());
+            response.put("status", submission.job().getStatus());
+            response.put("duplicate", submission.duplicate());
+            response.put("statusUrl", "/api/jobs/" + submission.job().getId());
+            return ResponseEntity.accepted().body(response);
+        } catch (IllegalStateException e) {
             response.put("success", false);
-            response.put("message", "Failed to send daily newsletter: " + e.getMessage());
-            return ResponseEntity.badRequest().body(response);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(503).body(response);
         }
     }
 
@@ -0,0 +1,25 @@
+package com.thecloudcode.cc.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summary, relevance score and category produced for one article.
+ */
+@Data
+@NoArgsConstructor
+public class ArticleEnrichment {
+    private String summary;
+    private int relevanceScore;
+    private String category;
+    // True when a field fell back to its default after an API failure; such results are not cached
+    private boolean degraded;
+    // "llm" or "local" when the category was decided in this run; null for cached or default values
+    private String categorySource;
+
+    public ArticleEnrichment(String summary, int relevanceScore, String category) {
+        this.summary = summary;
+        this.relevanceScore = relevanceScore;
+        this.category = category;
+    }
+}
@@ -0,0 +1,26 @@
+package com.thecloudcode.cc.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Merged result of a collection run across all feed sources.
+ */
+@Data
+public class CollectionReport {
+    private LocalDateTime startedAt = LocalDateTime.now();
+    private long durationMs;
+    private long deadlineMs;
+    private List<SourceCollectionResult> sources = new ArrayList<>();
+
+    public int getTotalCollected() {
+        return sources.stream().mapToInt(SourceCollectionResult::getArticlesCollected).sum();
+    }
+
+    public long getFailedSources() {
+        return sources.stream().filter(result -> !result.isSuccess()).count();
+    }
+}
@@ -0,0 +1,21 @@
+package com.thecloudcode.cc.dto;
+
+import java.time.Instant;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The subset of an RSS item or Atom entry that ingest needs, independent of
+ * which parser produced it.
+ */
+@Data
+@NoArgsConstructor
+public class FeedEntry {
+    private String title;
+    private String link;
+    private String guid;
+    private String description;
+    private Instant publishedDate;
+    private String enclosureImageUrl;
+}
@@ -0,0 +1,21 @@
+package com.thecloudcode.cc.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a conditional feed request. When {@code notModified} is set the
+ * body is empty and the feed does not need to be parsed.
+ */
+@Data
+@NoArgsConstructor
+public class FeedFetchResponse {
+    private String feedUrl;
+    private int status;
+    private boolean notModified;
+    private byte[] body;
+    private String contentType;
+    private String etag;
+    private String lastModified;
+    private long bytesRead;
+}
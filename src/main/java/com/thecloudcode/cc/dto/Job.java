@@ -0,0 +1,42 @@
+package com.thecloudcode.cc.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A background run of a long endpoint operation, polled by id. Fields are
+ * written by the worker thread and read by status requests, hence volatile.
+ */
+@Data
+@NoArgsConstructor
+public class Job {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private String id;
+    private String type;
+    private volatile Status status = Status.QUEUED;
+    // Current step, e.g. "processing articles", set by the running operation
+    private volatile String phase;
+    private volatile int itemsProcessed;
+    private volatile Object result;
+    private volatile String error;
+    private LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public Job(String id, String type) {
+        this.id = id;
+        this.type = type;
+    }
+
+    public synchronized void incrementItemsProcessed() {
+        itemsProcessed++;
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,30 @@
+package com.thecloudcode.cc.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of collecting a single feed during one collection run.
+ */
+@Data
+@NoArgsConstructor
+public class SourceCollectionResult {
+    private Long sourceId;
+    private String source;
+    private String url;
+    private int articlesCollected;
+    private int nearDuplicates;
+    // Entries at or below the feed's watermark that were not processed
+    private int entriesSkipped;
+    private long durationMs;
+    private boolean success;
+    private boolean timedOut;
+    private boolean notModified;
+    private long bytesRead;
+    private String error;
+
+    public SourceCollectionResult(String source, String url) {
+        this.source = source;
+        this.url = url;
+    }
+}
@@ -0,0 +1,48 @@
+package com.thecloudcode.cc.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored OpenAI summary, score and category for one article version. The key
+ * hashes the title, description, prompt version and model, so edited articles
+ * or changed prompts miss the cache instead of reusing stale output.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "ai_enrichment_cache")
+public class EnrichmentCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 hex digest of title, description, prompt version and model
+    @Column(name = "content_hash", length = 64, unique = true, nullable = false)
+    private String contentHash;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "relevance_score")
+    private int relevanceScore;
+
+    private String category;
+
+    @Column(name = "prompt_version", length = 50)
+    private String promptVersion;
+
+    @Column(length = 100)
+    private String model;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,46 @@
+package com.thecloudcode.cc.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * HTTP cache validators remembered per feed URL so the next poll can be
+ * sent as a conditional request.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "feed_fetch_state")
+public class FeedFetchState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "feed_url", length = 1000, unique = true, nullable = false)
+    private String feedUrl;
+
+    @Column(length = 500)
+    private String etag;
+
+    @Column(name = "last_modified", length = 100)
+    private String lastModified;
+
+    @Column(name = "last_status")
+    private Integer lastStatus;
+
+    @Column(name = "last_fetched_at")
+    private LocalDateTime lastFetchedAt;
+
+    public FeedFetchState(String feedUrl) {
+        this.feedUrl = feedUrl;
+    }
+}
@@ -0,0 +1,64 @@
+package com.thecloudcode.cc.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A registered RSS/Atom feed together with its adaptive polling schedule.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "feed_sources")
+public class FeedSource {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(length = 1000, unique = true, nullable = false)
+    private String url;
+
+    @Column(nullable = false)
+    private boolean enabled = true;
+
+    @Column(name = "poll_interval_minutes", nullable = false)
+    private int pollIntervalMinutes = 30;
+
+    @Column(name = "min_poll_interval_minutes", nullable = false)
+    private int minPollIntervalMinutes = 10;
+
+    @Column(name = "max_poll_interval_minutes", nullable = false)
+    private int maxPollIntervalMinutes = 360;
+
+    // Exponentially weighted average of new items per hour
+    @Column(name = "items_per_hour", nullable = false)
+    private double itemsPerHour = 0.0;
+
+    @Column(name = "last_polled_at")
+    private LocalDateTime lastPolledAt;
+
+    @Column(name = "next_poll_at")
+    private LocalDateTime nextPollAt;
+
+    @Column(name = "last_new_item_at")
+    private LocalDateTime lastNewItemAt;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public FeedSource(String name, String url) {
+        this.name = name;
+        this.url = url;
+    }
+}
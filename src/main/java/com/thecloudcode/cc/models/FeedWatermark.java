@@ -0,0 +1,44 @@
+package com.thecloudcode.cc.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Newest entry already ingested from a feed. Polls stop reading the feed once
+ * they reach it, so steady-state polls only touch entries published since.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "feed_watermarks")
+public class FeedWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "feed_url", length = 1000, unique = true, nullable = false)
+    private String feedUrl;
+
+    @Column(name = "latest_published_at")
+    private LocalDateTime latestPublishedAt;
+
+    // GUID (or link) of the entry published at latestPublishedAt
+    @Column(name = "latest_guid", length = 1000)
+    private String latestGuid;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public FeedWatermark(String feedUrl) {
+        this.feedUrl = feedUrl;
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,9 +17,17 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "news_articles")
+@Table(name = "news_articles", indexes = {
+    @Index(name = "idx_news_articles_canonical_url", columnList = "canonical_url")
+})
 public class NewsArticle {
 
+    public static final String CATEGORY_SOURCE_LLM = "llm";
+    public static final String CATEGORY_SOURCE_LOCAL = "local";
+
+    // Column sizes; article.snippet/teaser.max-chars are clamped to fit them
+    public static final int SNIPPET_LENGTH = 300;
+    public static final int TEASER_LENGTH = 200;
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,12 +36,28 @@ public class NewsArticle {
     @Column(length = 500)
     private String title;
 
+    // Raw feed HTML; the snippet and teaser below are its plain-text versions
     @Column(length = 2000, columnDefinition = "TEXT")
     private String description;
 
+    // Plain-text versions of the description, computed once at ingest
+    @Column(length = SNIPPET_LENGTH)
+    private String snippet;
+
+    @Column(length = TEASER_LENGTH)
+    private String teaser;
+
     @Column(length = 1000, unique = true)
     private String url;
 
+    // Tracking parameters, fragment and host casing removed; used for de-duplication
+    @Column(name = "canonical_url", length = 1000)
+    private String canonicalUrl;
+
+    // 64-bit SimHash of title and description for near-duplicate detection
+    @Column(name = "content_fingerprint")
+    private Long contentFingerprint;
+
        
     @Column(name = "image_url", length = 1000)
     private String imageUrl;
@@ -41,6 +66,13 @@ public class NewsArticle {
 
     private LocalDateTime publishedDate;
 
+    // Last category assigned during processing, and whether OpenAI or the local classifier chose it
+    @Column(length = 50)
+    private String category;
+
+    @Column(name = "category_source", length = 10)
+    private String categorySource;
+
     private LocalDateTime createdAt = LocalDateTime.now();
 
 }
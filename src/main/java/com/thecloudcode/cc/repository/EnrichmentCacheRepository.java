@@ -0,0 +1,14 @@
+package com.thecloudcode.cc.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.thecloudcode.cc.models.EnrichmentCacheEntry;
+
+@Repository
+public interface EnrichmentCacheRepository extends JpaRepository<EnrichmentCacheEntry, Long> {
+
+    Optional<EnrichmentCacheEntry> findByContentHash(String contentHash);
+}
@@ -0,0 +1,32 @@
+package com.thecloudcode.cc.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.thecloudcode.cc.models.FeedSource;
+
+@Repository
+public interface FeedSourceRepository extends JpaRepository<FeedSource, Long> {
+
+    List<FeedSource> findByEnabledTrueOrderByIdAsc();
+
+    boolean existsByUrl(String url);
+
+    @Query("SELECT f FROM FeedSource f WHERE f.enabled = true AND (f.nextPollAt IS NULL OR f.nextPollAt <= :now) ORDER BY f.nextPollAt ASC")
+    List<FeedSource> findDueSources(LocalDateTime now);
+
+    // Scheduling columns only, so a poll never overwrites an admin edit made while it ran
+    @Transactional
+    @Modifying
+    @Query("UPDATE FeedSource f SET f.pollIntervalMinutes = :pollIntervalMinutes, f.itemsPerHour = :itemsPerHour, "
+        + "f.lastPolledAt = :lastPolledAt, f.nextPollAt = :nextPollAt, "
+        + "f.lastNewItemAt = COALESCE(:lastNewItemAt, f.lastNewItemAt) WHERE f.id = :id")
+    int updatePollSchedule(Long id, int pollIntervalMinutes, double itemsPerHour, LocalDateTime lastPolledAt,
+                           LocalDateTime nextPollAt, LocalDateTime lastNewItemAt);
+}
@@ -0,0 +1,14 @@
+package com.thecloudcode.cc.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.thecloudcode.cc.models.FeedWatermark;
+
+@Repository
+public interface FeedWatermarkRepository extends JpaRepository<FeedWatermark, Long> {
+
+    Optional<FeedWatermark> findByFeedUrl(String feedUrl);
+}
@@ -1,11 +1,15 @@
 package com.thecloudcode.cc.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.thecloudcode.cc.models.NewsArticle;
 
@@ -22,6 +26,34 @@ public interface NewsArticleRepository extends JpaRepository<NewsArticle,Long> {
       List<NewsArticle> findByPublishedDateAfterOrderByPublishedDateDesc(LocalDateTime date);
     boolean existsByUrl(String url);
 
+    List<NewsArticle> findTop50ByOrderByPublishedDateDesc();
+
+    // OpenAI-labelled articles used to train the local category classifier
+    List<NewsArticle> findTop5000ByCategorySourceOrderByIdDesc(String categorySource);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NewsArticle a SET a.category = :category, a.categorySource = :categorySource WHERE a.id = :id")
+    int updateCategory(Long id, String category, String categorySource);
+
+    @Query("SELECT a.canonicalUrl FROM NewsArticle a WHERE a.canonicalUrl IN :canonicalUrls")
+    List<String> findExistingCanonicalUrls(Collection<String> canonicalUrls);
+
+    // Keyset page of (id, canonicalUrl) pairs, used to warm the de-duplication filter
+    @Query("SELECT a.id, a.canonicalUrl FROM NewsArticle a WHERE a.id > :afterId ORDER BY a.id")
+    List<Object[]> findCanonicalUrlPage(Long afterId, Pageable pageable);
+
+    // Rows stored before canonical URLs and fingerprints were introduced
+    List<NewsArticle> findTop500ByCanonicalUrlIsNullOrderByIdAsc();
+
+    List<NewsArticle> findTop500BySnippetIsNullOrderByIdAsc();
+
+    // Recent articles still without an image, retried by the image enrichment sweep
+    List<NewsArticle> findTop200ByImageUrlIsNullAndCreatedAtAfterOrderByIdDesc(LocalDateTime since);
+
+    @Query("SELECT a.contentFingerprint, a.url, a.createdAt FROM NewsArticle a WHERE a.createdAt >= :since AND a.contentFingerprint IS NOT NULL ORDER BY a.createdAt ASC")
+    List<Object[]> findRecentFingerprints(LocalDateTime since);
+
      // This is the fallback: it gets the 6 latest articles from the entire database
     List<NewsArticle> findTop6ByOrderByPublishedDateDesc();
 
@@ -0,0 +1,171 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.models.NewsArticle;
+import com.thecloudcode.cc.repository.NewsArticleRepository;
+import com.thecloudcode.cc.util.UrlCanonicalizer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * De-duplicates feed entries against stored articles by canonical URL. A
+ * Bloom filter of known URLs answers "definitely new" without a query; only
+ * the URLs it flags as possibly known are confirmed, with a single IN query
+ * per feed.
+ */
+@Service
+public class ArticleDeduplicationService {
+
+    @Autowired
+    private NewsArticleRepository articleRepository;
+
+    @Autowired
+    private NearDuplicateDetector nearDuplicateDetector;
+
+    @Value("${rss.dedup.expected-urls:200000}")
+    private long expectedUrls;
+
+    @Value("${rss.dedup.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${rss.dedup.warmup-page-size:5000}")
+    private int warmupPageSize;
+
+    private volatile UrlBloomFilter knownUrls;
+    private volatile boolean warmed = false;
+
+    private final AtomicLong checkedUrls = new AtomicLong();
+    private final AtomicLong filterNegatives = new AtomicLong();
+    private final AtomicLong databaseLookups = new AtomicLong();
+    private final AtomicLong databaseConfirmedDuplicates = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        knownUrls = new UrlBloomFilter(expectedUrls, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            backfillCanonicalFields();
+            nearDuplicateDetector.load();
+        } catch (Exception e) {
+            System.err.println("Error preparing article fingerprints: " + e.getMessage());
+        }
+
+        long start = System.currentTimeMillis();
+        long loaded = 0;
+        long lastId = 0L;
+        try {
+            while (true) {
+                List<Object[]> page = articleRepository.findCanonicalUrlPage(lastId, PageRequest.of(0, warmupPageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : page) {
+                    lastId = (Long) row[0];
+                    if (row[1] != null) {
+                        knownUrls.put((String) row[1]);
+                        loaded++;
+                    }
+                }
+            }
+            warmed = true;
+            System.out.println("Warmed URL filter with " + loaded + " articles in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            // Without a complete filter every URL is confirmed against the database
+            System.err.println("Error warming URL filter: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fills canonical URL and fingerprint on articles saved before those
+     * columns existed, so de-duplication can rely on them.
+     */
+    private void backfillCanonicalFields() {
+        long updated = 0;
+        while (true) {
+            List<NewsArticle> batch = articleRepository.findTop500ByCanonicalUrlIsNullOrderByIdAsc();
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (NewsArticle article : batch) {
+                String canonical = UrlCanonicalizer.canonicalize(article.getUrl());
+                article.setCanonicalUrl(canonical != null ? canonical : "");
+                article.setContentFingerprint(nearDuplicateDetector.fingerprint(article.getTitle(), article.getDescription()));
+            }
+            articleRepository.saveAll(batch);
+            updated += batch.size();
+        }
+        if (updated > 0) {
+            System.out.println("Backfilled canonical URLs and fingerprints for " + updated + " articles");
+        }
+    }
+
+    /**
+     * Returns the canonical URLs from {@code urls} that are not stored yet, in their
+     * original order and without repeats.
+     */
+    public Set<String> filterNewUrls(Collection<String> urls) {
+        Set<String> candidates = new LinkedHashSet<>();
+        for (String url : urls) {
+            if (url != null && !url.isBlank()) {
+                candidates.add(url);
+            }
+        }
+        checkedUrls.addAndGet(candidates.size());
+
+        Set<String> toConfirm = new HashSet<>();
+        for (String url : candidates) {
+            if (!warmed || knownUrls.mightContain(url)) {
+                toConfirm.add(url);
+            }
+        }
+        // Bloom negatives are definitely new; count the ones we did not have to look up
+        long skipped = candidates.size() - toConfirm.size();
+        filterNegatives.addAndGet(skipped);
+
+        if (!toConfirm.isEmpty()) {
+            databaseLookups.incrementAndGet();
+            List<String> existing = articleRepository.findExistingCanonicalUrls(toConfirm);
+            databaseConfirmedDuplicates.addAndGet(existing.size());
+            candidates.removeAll(existing);
+        }
+        return candidates;
+    }
+
+    public void markSaved(Collection<String> urls) {
+        for (String url : urls) {
+            if (url != null) {
+                knownUrls.put(url);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("warmed", warmed);
+        stats.put("bitCount", knownUrls.getBitCount());
+        stats.put("hashCount", knownUrls.getHashCount());
+        stats.put("checkedUrls", checkedUrls.get());
+        stats.put("definitelyNewWithoutQuery", filterNegatives.get());
+        stats.put("databaseLookups", databaseLookups.get());
+        stats.put("databaseConfirmedDuplicates", databaseConfirmedDuplicates.get());
+        return stats;
+    }
+}
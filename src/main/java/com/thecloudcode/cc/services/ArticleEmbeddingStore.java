@@ -0,0 +1,116 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.models.NewsArticle;
+import com.thecloudcode.cc.repository.NewsArticleRepository;
+import com.thecloudcode.cc.util.VectorIndex;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeddings of recent articles, kept in a flat in-memory vector index for
+ * similarity search. Filled from the database at startup and kept current by
+ * the collector; embeddings are cheap to recompute, so nothing is persisted.
+ */
+@Service
+public class ArticleEmbeddingStore {
+
+    @Autowired
+    private LocalTextEmbedder embedder;
+
+    @Autowired
+    private NewsArticleRepository articleRepository;
+
+    @Value("${embedding.index.max-articles:20000}")
+    private int maxArticles;
+
+    @Value("${embedding.index.warm-days:7}")
+    private int warmDays;
+
+    private VectorIndex index;
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        index = new VectorIndex(LocalTextEmbedder.DIMENSIONS, maxArticles);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        try {
+            List<NewsArticle> recent = articleRepository.findByCreatedAtAfter(LocalDateTime.now().minusDays(warmDays));
+            add(recent);
+            System.out.println("Embedding index warmed with " + recent.size() + " articles");
+        } catch (Exception e) {
+            System.err.println("Error warming embedding index: " + e.getMessage());
+        }
+    }
+
+    /** Embeds and indexes saved articles. */
+    public void add(List<NewsArticle> articles) {
+        for (NewsArticle article : articles) {
+            if (article.getId() == null) {
+                continue;
+            }
+            float[] vector = embed(article);
+            synchronized (this) {
+                index.put(article.getId(), vector);
+            }
+        }
+    }
+
+    /** The indexed embedding of an article, or a freshly computed one. */
+    public float[] embeddingOf(NewsArticle article) {
+        if (article.getId() != null) {
+            float[] stored;
+            synchronized (this) {
+                stored = index.get(article.getId());
+            }
+            if (stored != null) {
+                return stored;
+            }
+        }
+        return embed(article);
+    }
+
+    /** The {@code k} indexed articles most similar to {@code article}, excluding itself. */
+    public List<VectorIndex.Match> similarTo(NewsArticle article, int k) {
+        float[] query = embeddingOf(article);
+        long excludeId = article.getId() != null ? article.getId() : Long.MIN_VALUE;
+        long start = System.nanoTime();
+        List<VectorIndex.Match> matches;
+        synchronized (this) {
+            matches = index.topK(query, k, excludeId);
+        }
+        queries.incrementAndGet();
+        queryNanos.addAndGet(System.nanoTime() - start);
+        return matches;
+    }
+
+    private float[] embed(NewsArticle article) {
+        return embedder.embed(article.getTitle(), article.getDescription());
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("indexedArticles", index.size());
+        stats.put("capacity", maxArticles);
+        stats.put("dimensions", index.getDimensions());
+        stats.put("queries", queries.get());
+        stats.put("avgQueryMicros", queries.get() == 0 ? 0 : queryNanos.get() / queries.get() / 1000);
+        return stats;
+    }
+}
@@ -0,0 +1,96 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.models.NewsArticle;
+import com.thecloudcode.cc.repository.NewsArticleRepository;
+
+import org.jsoup.Jsoup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.List;
+
+/**
+ * Converts feed description HTML into plain text once, at ingest, and stores a
+ * snippet and a shorter teaser on the article for rendering and API use.
+ */
+@Service
+public class ArticleNormalizationService {
+
+    @Autowired
+    private NewsArticleRepository articleRepository;
+
+    @Value("${article.snippet.max-chars:200}")
+    private int snippetMaxChars;
+
+    @Value("${article.teaser.max-chars:150}")
+    private int teaserMaxChars;
+
+    private static final String ELLIPSIS = "...";
+
+    /** Keeps the configured lengths, plus the ellipsis, within the snippet and teaser columns. */
+    @PostConstruct
+    void clampLengths() {
+        snippetMaxChars = clamp("article.snippet.max-chars", snippetMaxChars, NewsArticle.SNIPPET_LENGTH);
+        teaserMaxChars = clamp("article.teaser.max-chars", teaserMaxChars, NewsArticle.TEASER_LENGTH);
+    }
+
+    private static int clamp(String property, int configured, int columnLength) {
+        int limit = columnLength - ELLIPSIS.length();
+        if (configured > limit) {
+            System.err.println(property + "=" + configured + " does not fit its " + columnLength
+                + "-character column; using " + limit);
+            return limit;
+        }
+        return configured;
+    }
+
+    public void normalize(NewsArticle article) {
+        String text = toPlainText(article.getDescription());
+        article.setSnippet(truncateAtWord(text, snippetMaxChars));
+        article.setTeaser(truncateAtWord(text, teaserMaxChars));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            long updated = 0;
+            while (true) {
+                List<NewsArticle> batch = articleRepository.findTop500BySnippetIsNullOrderByIdAsc();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                batch.forEach(this::normalize);
+                articleRepository.saveAll(batch);
+                updated += batch.size();
+            }
+            if (updated > 0) {
+                System.out.println("Backfilled text snippets for " + updated + " articles");
+            }
+        } catch (Exception e) {
+            System.err.println("Error backfilling article snippets: " + e.getMessage());
+        }
+    }
+
+    static String toPlainText(String html) {
+        if (html == null || html.isBlank()) {
+            return "";
+        }
+        return Jsoup.parse(html).text().replaceAll("\\s+", " ").trim();
+    }
+
+    static String truncateAtWord(String text, int maxChars) {
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', maxChars);
+        if (cut < maxChars / 2) {
+            cut = maxChars;
+        }
+        return text.substring(0, cut).trim() + ELLIPSIS;
+    }
+}
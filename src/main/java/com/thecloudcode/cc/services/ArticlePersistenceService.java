@@ -0,0 +1,125 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.models.FeedWatermark;
+import com.thecloudcode.cc.models.NewsArticle;
+import com.thecloudcode.cc.repository.FeedWatermarkRepository;
+import com.thecloudcode.cc.repository.NewsArticleRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persist phase of ingest. Each call is one short transaction, so a database
+ * connection is only checked out while a batch is actually being written and
+ * never while feeds or article pages are being downloaded.
+ */
+@Service
+public class ArticlePersistenceService {
+
+    @Autowired
+    private NewsArticleRepository articleRepository;
+
+    @Autowired
+    private FeedWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String UPDATE_IMAGE_SQL =
+        "UPDATE news_articles SET image_url = ? WHERE id = ? AND image_url IS NULL";
+
+    private static final String INSERT_ARTICLE_SQL =
+        "INSERT INTO news_articles (title, description, snippet, teaser, url, canonical_url, content_fingerprint, "
+            + "image_url, source, published_date, category, category_source, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Loads a feed's watermark, creating its row first if there is none yet.
+     * The row is inserted on its own, outside any batch transaction, so when
+     * two polls of a new feed race, the loser re-reads the winner's row
+     * instead of rolling back its articles on the unique feed URL.
+     */
+    public FeedWatermark watermarkFor(String feedUrl) {
+        return watermarkRepository.findByFeedUrl(feedUrl).orElseGet(() -> {
+            try {
+                return watermarkRepository.saveAndFlush(new FeedWatermark(feedUrl));
+            } catch (DataIntegrityViolationException e) {
+                return watermarkRepository.findByFeedUrl(feedUrl).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    @Transactional
+    public List<NewsArticle> saveBatch(List<NewsArticle> batch) {
+        return articleRepository.saveAll(batch);
+    }
+
+    /**
+     * Saves a feed's final batch and advances its watermark in the same
+     * transaction, so the watermark never moves past articles that failed to save.
+     */
+    @Transactional
+    public List<NewsArticle> saveBatch(List<NewsArticle> batch, FeedWatermark watermark) {
+        List<NewsArticle> saved = articleRepository.saveAll(batch);
+        watermarkRepository.save(watermark);
+        return saved;
+    }
+
+    /**
+     * Bulk-import write path. IDENTITY ids make Hibernate insert one row per
+     * statement, so archive-sized imports go through a single JDBC batch per
+     * call instead. The articles are not given their generated ids.
+     */
+    @Transactional
+    public void insertBatch(List<NewsArticle> batch) {
+        jdbcTemplate.batchUpdate(INSERT_ARTICLE_SQL, batch, batch.size(), (ps, article) -> {
+            ps.setString(1, article.getTitle());
+            ps.setString(2, article.getDescription());
+            ps.setString(3, article.getSnippet());
+            ps.setString(4, article.getTeaser());
+            ps.setString(5, article.getUrl());
+            ps.setString(6, article.getCanonicalUrl());
+            if (article.getContentFingerprint() != null) {
+                ps.setLong(7, article.getContentFingerprint());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            ps.setString(8, article.getImageUrl());
+            ps.setString(9, article.getSource());
+            ps.setTimestamp(10, article.getPublishedDate() != null ? Timestamp.valueOf(article.getPublishedDate()) : null);
+            ps.setString(11, article.getCategory());
+            ps.setString(12, article.getCategorySource());
+            ps.setTimestamp(13, article.getCreatedAt() != null ? Timestamp.valueOf(article.getCreatedAt()) : null);
+        });
+    }
+
+    /**
+     * Sets image URLs found by background enrichment, touching only that
+     * column and only where it is still empty, so category or backfill
+     * updates made meanwhile are never overwritten. Returns the rows changed.
+     */
+    @Transactional
+    public int updateImageUrls(Map<Long, String> imageUrls) {
+        List<Map.Entry<Long, String>> updates = new ArrayList<>(imageUrls.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_IMAGE_SQL, updates, updates.size(), (ps, update) -> {
+            ps.setString(1, update.getValue());
+            ps.setLong(2, update.getKey());
+        });
+        int changed = 0;
+        for (int[] batchCounts : counts) {
+            for (int count : batchCounts) {
+                changed += Math.max(count, 0);
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,214 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.dto.CollectionReport;
+import com.thecloudcode.cc.dto.FeedEntry;
+import com.thecloudcode.cc.dto.SourceCollectionResult;
+import com.thecloudcode.cc.models.NewsArticle;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Offline import of saved feeds: a directory of RSS/Atom XML files, or an
+ * OPML list whose outlines point at local files. Files are parsed in
+ * parallel while a single writer de-duplicates and saves, so two files
+ * carrying the same story can never race each other into the table.
+ */
+@Service
+public class BulkIngestService {
+
+    @Autowired
+    private StaxFeedParser staxFeedParser;
+
+    @Autowired
+    private RSSCollectorService rssCollectorService;
+
+    @Value("${rss.bulk.parser-threads:0}")
+    private int parserThreads;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /** One file to import and the source name its articles are stored under. */
+    record FeedFile(Path path, String sourceName) { }
+
+    private record ParsedFile(int index, List<FeedEntry> entries, Exception error) { }
+
+    public CollectionReport ingest(String location) throws IOException {
+        Path path = Paths.get(location).toAbsolutePath().normalize();
+        if (!Files.exists(path)) {
+            throw new IOException("No such file or directory: " + path);
+        }
+        List<FeedFile> files = Files.isDirectory(path) ? listFeedFiles(path) : readOpml(path);
+
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A bulk import is already running");
+        }
+        try {
+            return ingestFiles(files);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private CollectionReport ingestFiles(List<FeedFile> files) {
+        CollectionReport report = new CollectionReport();
+        long start = System.currentTimeMillis();
+
+        int threads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+        System.out.println("Bulk import of " + files.size() + " feed files using " + threads + " parser threads");
+
+        List<SourceCollectionResult> results = new ArrayList<>();
+        for (FeedFile file : files) {
+            results.add(new SourceCollectionResult(file.sourceName(), file.path().toString()));
+        }
+
+        // Caps parsed-but-unwritten files so a fast parser cannot outrun the writer's memory
+        Semaphore pending = new Semaphore(threads * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<ParsedFile> completion = new ExecutorCompletionService<>(executor);
+        Thread submitter = null;
+        try {
+            submitter = Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < files.size(); i++) {
+                    int index = i;
+                    try {
+                        pending.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    completion.submit(() -> parseFile(index, files.get(index), results.get(index)));
+                }
+            });
+
+            for (int done = 0; done < files.size(); done++) {
+                Future<ParsedFile> future = completion.take();
+                pending.release();
+                ParsedFile parsed = future.get();
+                SourceCollectionResult result = results.get(parsed.index());
+                if (parsed.error() != null) {
+                    result.setError(parsed.error().getMessage());
+                    System.err.println("Error parsing " + result.getUrl() + ": " + parsed.error().getMessage());
+                    continue;
+                }
+                writeFile(parsed.entries(), result);
+            }
+            submitter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Bulk import interrupted");
+        } catch (ExecutionException e) {
+            System.err.println("Bulk import failed: " + e.getMessage());
+        } finally {
+            if (submitter != null) {
+                submitter.interrupt();
+            }
+            executor.shutdownNow();
+        }
+
+        report.getSources().addAll(results);
+        report.setDurationMs(System.currentTimeMillis() - start);
+        System.out.println("Bulk import saved " + report.getTotalCollected() + " articles from " + files.size()
+            + " files in " + report.getDurationMs() + " ms (" + report.getFailedSources() + " failed)");
+        return report;
+    }
+
+    private ParsedFile parseFile(int index, FeedFile file, SourceCollectionResult result) {
+        long parseStart = System.currentTimeMillis();
+        try (InputStream in = Files.newInputStream(file.path())) {
+            result.setBytesRead(Files.size(file.path()));
+            return new ParsedFile(index, staxFeedParser.parse(in, null), null);
+        } catch (Exception e) {
+            return new ParsedFile(index, null, e);
+        } finally {
+            result.setDurationMs(System.currentTimeMillis() - parseStart);
+        }
+    }
+
+    private void writeFile(List<FeedEntry> entries, SourceCollectionResult result) {
+        long writeStart = System.currentTimeMillis();
+        try {
+            List<NewsArticle> saved = rssCollectorService.ingestEntries(entries, result.getSource(), result, null);
+            result.setArticlesCollected(saved.size());
+            result.setSuccess(true);
+        } catch (Exception e) {
+            result.setError(e.getMessage());
+            System.err.println("Error saving articles from " + result.getUrl() + ": " + e.getMessage());
+        } finally {
+            result.setDurationMs(result.getDurationMs() + System.currentTimeMillis() - writeStart);
+        }
+    }
+
+    private List<FeedFile> listFeedFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(this::isFeedFile)
+                .sorted()
+                .map(path -> new FeedFile(path, sourceNameOf(path)))
+                .toList();
+        }
+    }
+
+    /**
+     * Reads outlines with an {@code xmlUrl}; relative paths resolve against the
+     * OPML file's directory and remote URLs are skipped.
+     */
+    private List<FeedFile> readOpml(Path opml) throws IOException {
+        Document doc = Jsoup.parse(Files.readString(opml, StandardCharsets.UTF_8), "", Parser.xmlParser());
+        Path baseDir = opml.getParent();
+        List<FeedFile> files = new ArrayList<>();
+        for (Element outline : doc.select("outline[xmlUrl]")) {
+            String location = outline.attr("xmlUrl").trim();
+            Path path;
+            if (location.startsWith("file:")) {
+                path = Paths.get(URI.create(location));
+            } else if (location.startsWith("http://") || location.startsWith("https://")) {
+                System.out.println("Skipping remote feed in OPML: " + location);
+                continue;
+            } else {
+                path = baseDir.resolve(location).normalize();
+            }
+
+            String name = outline.hasAttr("title") ? outline.attr("title") : outline.attr("text");
+            files.add(new FeedFile(path, name.isBlank() ? sourceNameOf(path) : name.trim()));
+        }
+        return files;
+    }
+
+    private boolean isFeedFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".xml") || name.endsWith(".rss") || name.endsWith(".atom");
+    }
+
+    private String sourceNameOf(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
@@ -1,16 +1,25 @@
 package com.thecloudcode.cc.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.thecloudcode.cc.dto.ArticleEnrichment;
 import com.thecloudcode.cc.dto.ProcessedArticle;
 import com.thecloudcode.cc.models.NewsArticle;
 import com.thecloudcode.cc.repository.NewsArticleRepository;
+import com.thecloudcode.cc.util.VectorIndex;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ContentProcessingService {
@@ -21,7 +30,35 @@ public class ContentProcessingService {
     @Autowired
     private NewsArticleRepository articleRepository;
 
+    @Autowired
+    private OpenAiExecutor openAiExecutor;
+
+    @Autowired
+    private EnrichmentCacheService enrichmentCache;
+
+    @Autowired
+    private LocalCategoryClassifier categoryClassifier;
+
+    @Autowired
+    private ArticleEmbeddingStore embeddingStore;
+
+    // Embedding similarity at which two candidates count as the same story
+    @Value("${selection.topic-similarity:0.5}")
+    private double topicSimilarity;
+
+    @Value("${openai.processing.max-articles:0}")
+    private int maxArticles;
+
     public List<ProcessedArticle> processRecentArticles() {
+        return processRecentArticles(processed -> { });
+    }
+
+    /**
+     * As above, handing each article to {@code onProcessed} as soon as it is
+     * enriched. The listener is called from OpenAI worker threads, in
+     * completion order rather than intake order.
+     */
+    public List<ProcessedArticle> processRecentArticles(Consumer<ProcessedArticle> onProcessed) {
         System.out.println("Starting OpenAI processing of recent articles...");
         
         // Get articles from last 24 hours
@@ -31,90 +68,175 @@ public class ContentProcessingService {
         System.out.println("Found " + recentArticles.size() + " articles from last 24 hours");
         
         if (recentArticles.isEmpty()) {
-            System.out.println("No recent articles found. Using all articles for processing.");
-            recentArticles = articleRepository.findAll();
+            System.out.println("No recent articles found. Using the latest stored articles for processing.");
+            recentArticles = articleRepository.findTop50ByOrderByPublishedDateDesc();
         }
         
-        List<ProcessedArticle> processedArticles = new ArrayList<>();
+        // Optional cost cap; 0 processes the whole intake
+        List<NewsArticle> articlesToProcess = maxArticles > 0
+            ? recentArticles.stream().limit(maxArticles).collect(Collectors.toList())
+            : recentArticles;
+
+        List<ProcessedArticle> processedArticles = enrichArticles(articlesToProcess, onProcessed);
         
-        // Process maximum 10 articles to manage OpenAI API costs
-        List<NewsArticle> articlesToProcess = recentArticles.stream()
-            .limit(10)
+        System.out.println("OpenAI processing complete. Processed " + processedArticles.size() + " articles");
+        return processedArticles;
+    }
+    
+    /**
+     * Enriches the given articles on the OpenAI worker pool, in chunks when
+     * batched mode is on, returning results in input order. Articles already
+     * in the enrichment cache cost no OpenAI calls.
+     */
+    public List<ProcessedArticle> enrichArticles(List<NewsArticle> articles, Consumer<ProcessedArticle> onProcessed) {
+        int total = articles.size();
+        AtomicInteger started = new AtomicInteger();
+        if (openAiService.isBatchedMode()) {
+            List<List<NewsArticle>> chunks = new ArrayList<>();
+            for (int from = 0; from < total; from += openAiService.getBatchSize()) {
+                chunks.add(articles.subList(from, Math.min(from + openAiService.getBatchSize(), total)));
+            }
+            return openAiExecutor.mapInOrder(chunks, chunk -> {
+                System.out.println("Processing articles " + (started.get() + 1) + "-" + started.addAndGet(chunk.size()) + "/" + total);
+                List<ProcessedArticle> results = processChunk(chunk);
+                results.forEach(onProcessed);
+                return results;
+            }).stream().flatMap(List::stream).collect(Collectors.toList());
+        } else {
+            return openAiExecutor.mapInOrder(articles, article -> {
+                System.out.println("Processing article " + started.incrementAndGet() + "/" + total + ": " + article.getTitle());
+                ProcessedArticle result = processArticle(article);
+                onProcessed.accept(result);
+                return result;
+            });
+        }
+    }
+
+    /**
+     * Batched mode: one request summarizes, scores and categorizes every
+     * chunk article not already cached.
+     */
+    private List<ProcessedArticle> processChunk(List<NewsArticle> chunk) {
+        List<NewsArticle> uncached = chunk.stream()
+            .filter(article -> !enrichmentCache.isStored(article.getTitle(), descriptionOf(article)))
             .collect(Collectors.toList());
-        
-        for (int i = 0; i < articlesToProcess.size(); i++) {
-            NewsArticle article = articlesToProcess.get(i);
-            
-            try {
-                System.out.println("Processing article " + (i+1) + "/" + articlesToProcess.size() + ": " + article.getTitle());
-                
-                ProcessedArticle processed = new ProcessedArticle(article);
-                
-                // OpenAI Summarization
-                String summary = openAiService.summarizeArticle(
-                    article.getTitle(), 
-                    article.getDescription() != null ? article.getDescription() : ""
-                );
-                processed.setSummary(summary);
-                System.out.println("✓ Summary: " + summary.substring(0, Math.min(100, summary.length())) + "...");
-                
-                // OpenAI Relevance Scoring
-                int relevanceScore = openAiService.scoreArticleRelevance(
-                    article.getTitle(), 
-                    article.getDescription() != null ? article.getDescription() : ""
-                );
-                processed.setRelevanceScore(relevanceScore);
-                System.out.println("✓ Relevance Score: " + relevanceScore + "/10");
-                
-                // OpenAI Categorization
-                String category = openAiService.categorizeArticle(
-                    article.getTitle(), 
-                    article.getDescription() != null ? article.getDescription() : ""
-                );
-                processed.setCategory(category);
-                System.out.println("✓ Category: " + category);
-                
-                processedArticles.add(processed);
-                
-                // Add delay to avoid rate limiting
-                if (i < articlesToProcess.size() - 1) {
-                    System.out.println("Waiting 1 second before next article...");
-                    Thread.sleep(1000);
-                }
-                
-            } catch (Exception e) {
-                System.err.println("Error processing article: " + article.getTitle() + " - " + e.getMessage());
-                
-                // Create a fallback processed article
-                ProcessedArticle fallback = new ProcessedArticle(article);
-                fallback.setSummary("Unable to generate AI summary for this article.");
-                fallback.setRelevanceScore(5);
-                fallback.setCategory("General Tech");
-                processedArticles.add(fallback);
+
+        Map<NewsArticle, ArticleEnrichment> enriched = new IdentityHashMap<>();
+        if (!uncached.isEmpty()) {
+            List<ArticleEnrichment> results = openAiService.enrichBatch(uncached);
+            for (int i = 0; i < uncached.size(); i++) {
+                enriched.put(uncached.get(i), results.get(i));
             }
         }
-        
-        System.out.println("OpenAI processing complete. Processed " + processedArticles.size() + " articles");
-        return processedArticles;
+
+        List<ProcessedArticle> processed = new ArrayList<>(chunk.size());
+        for (NewsArticle article : chunk) {
+            ArticleEnrichment batchResult = enriched.get(article);
+            processed.add(batchResult == null
+                ? processArticle(article)
+                : processArticle(article, () -> batchResult));
+        }
+        return processed;
+    }
+
+    private ProcessedArticle processArticle(NewsArticle article) {
+        return processArticle(article, () -> openAiService.enrichArticle(article.getTitle(), descriptionOf(article), article.getSource()));
+    }
+
+    /**
+     * Stores a freshly decided category on the article; OpenAI decisions also
+     * become training examples for the local classifier.
+     */
+    private void recordCategory(NewsArticle article, ArticleEnrichment enrichment) {
+        if (enrichment.getCategorySource() == null || article.getId() == null) {
+            return;
+        }
+        try {
+            articleRepository.updateCategory(article.getId(), enrichment.getCategory(), enrichment.getCategorySource());
+            if (NewsArticle.CATEGORY_SOURCE_LLM.equals(enrichment.getCategorySource())) {
+                categoryClassifier.learn(article.getTitle(), article.getDescription(), article.getSource(), enrichment.getCategory());
+            }
+        } catch (Exception e) {
+            System.err.println("Error recording category for article " + article.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private String descriptionOf(NewsArticle article) {
+        return article.getDescription() != null ? article.getDescription() : "";
+    }
+
+    private ProcessedArticle processArticle(NewsArticle article, Supplier<ArticleEnrichment> enrich) {
+        try {
+            ProcessedArticle processed = new ProcessedArticle(article);
+            
+            ArticleEnrichment enrichment = enrichmentCache.getOrCompute(article.getTitle(), descriptionOf(article), enrich);
+
+            String summary = enrichment.getSummary();
+            processed.setSummary(summary);
+            System.out.println("✓ Summary: " + summary.substring(0, Math.min(100, summary.length())) + "...");
+
+            processed.setRelevanceScore(enrichment.getRelevanceScore());
+            System.out.println("✓ Relevance Score: " + enrichment.getRelevanceScore() + "/10");
+
+            processed.setCategory(enrichment.getCategory());
+            System.out.println("✓ Category: " + enrichment.getCategory());
+            recordCategory(article, enrichment);
+            
+            return processed;
+            
+        } catch (Exception e) {
+            System.err.println("Error processing article: " + article.getTitle() + " - " + e.getMessage());
+            
+            // Create a fallback processed article
+            ProcessedArticle fallback = new ProcessedArticle(article);
+            fallback.setSummary("Unable to generate AI summary for this article.");
+            fallback.setRelevanceScore(5);
+            fallback.setCategory("General Tech");
+            return fallback;
+        }
     }
     
+    /**
+     * Picks up to five high scorers, at most one per topic. Candidates are
+     * clustered greedily in score order: each one joins the most similar
+     * earlier pick when their embeddings are close enough, otherwise it
+     * starts a topic of its own and becomes eligible.
+     */
     public List<ProcessedArticle> selectTopArticles(List<ProcessedArticle> processedArticles) {
         System.out.println("Selecting top articles from " + processedArticles.size() + " processed articles");
         
+        List<ProcessedArticle> ranked = processedArticles.stream()
+            .sorted((a, b) -> Integer.compare(b.getRelevanceScore(), a.getRelevanceScore())) // Sort by score desc
+            .collect(Collectors.toList());
+
+        VectorIndex topics = new VectorIndex(LocalTextEmbedder.DIMENSIONS, Math.max(1, ranked.size()));
+        List<ProcessedArticle> representatives = new ArrayList<>();
+        List<ProcessedArticle> sameTopic = new ArrayList<>();
+        for (ProcessedArticle candidate : ranked) {
+            float[] embedding = embeddingStore.embeddingOf(candidate.getOriginalArticle());
+            List<VectorIndex.Match> nearest = topics.topK(embedding, 1, -1);
+            if (!nearest.isEmpty() && nearest.get(0).similarity() >= topicSimilarity) {
+                sameTopic.add(candidate);
+            } else {
+                topics.put(representatives.size(), embedding);
+                representatives.add(candidate);
+            }
+        }
+        System.out.println("Grouped " + ranked.size() + " articles into " + representatives.size() + " topics");
+
         // Select articles with relevance score 6 and above, limit to top 5
-        List<ProcessedArticle> topArticles = processedArticles.stream()
+        List<ProcessedArticle> topArticles = representatives.stream()
             .filter(article -> article.getRelevanceScore() >= 6) // Quality threshold
-            .sorted((a, b) -> Integer.compare(b.getRelevanceScore(), a.getRelevanceScore())) // Sort by score desc
             .limit(5) // Top 5 articles
             .collect(Collectors.toList());
         
         System.out.println("Selected " + topArticles.size() + " high-scoring articles");
         
-        // If we don't have enough high-scoring articles, fill with next best
+        // If we don't have enough high-scoring articles, fill with next best, new topics first
         if (topArticles.size() < 3) {
-            List<ProcessedArticle> additionalArticles = processedArticles.stream()
-                .filter(article -> article.getRelevanceScore() < 6)
-                .sorted((a, b) -> Integer.compare(b.getRelevanceScore(), a.getRelevanceScore()))
+            List<ProcessedArticle> additionalArticles = Stream.concat(
+                    representatives.stream().filter(article -> article.getRelevanceScore() < 6),
+                    sameTopic.stream())
                 .limit(3 - topArticles.size())
                 .collect(Collectors.toList());
             
@@ -130,14 +252,24 @@ public class ContentProcessingService {
             return "No articles available for newsletter.";
         }
         
-        StringBuilder preview = new StringBuilder();
-        
+        return generateNewsletterPreview(topArticles, generateNewsletterSubject(topArticles));
+    }
+
+    public String generateNewsletterSubject(List<ProcessedArticle> topArticles) {
         // Generate subject line using OpenAI
         List<String> titles = topArticles.stream()
             .map(article -> article.getOriginalArticle().getTitle())
             .collect(Collectors.toList());
         
-        String subject = openAiService.generateNewsletterSubject(titles);
+        return openAiService.generateNewsletterSubject(titles);
+    }
+
+    public String generateNewsletterPreview(List<ProcessedArticle> topArticles, String subject) {
+        if (topArticles.isEmpty()) {
+            return "No articles available for newsletter.";
+        }
+
+        StringBuilder preview = new StringBuilder();
         preview.append("Subject: ").append(subject).append("\n\n");
         
         preview.append("🚀 TODAY'S TOP TECH STORIES\n\n");
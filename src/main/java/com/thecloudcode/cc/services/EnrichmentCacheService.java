@@ -0,0 +1,170 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.dto.ArticleEnrichment;
+import com.thecloudcode.cc.models.EnrichmentCacheEntry;
+import com.thecloudcode.cc.repository.EnrichmentCacheRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through store for article enrichments. Results are persisted by
+ * content hash, and concurrent requests for the same key share one OpenAI
+ * call instead of each sending their own.
+ */
+@Service
+public class EnrichmentCacheService {
+
+    @Autowired
+    private EnrichmentCacheRepository cacheRepository;
+
+    @Autowired
+    private OpenAiServiceClient openAiService;
+
+    private final Map<String, CompletableFuture<ArticleEnrichment>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong notStored = new AtomicLong();
+
+    /**
+     * Returns the stored enrichment for this article version, or computes it
+     * with {@code compute} and stores it. Degraded results are returned but
+     * not stored, so the next run tries the API again.
+     */
+    public ArticleEnrichment getOrCompute(String title, String description, Supplier<ArticleEnrichment> compute) {
+        String promptVersion = openAiService.getEnrichmentPromptVersion();
+        String model = openAiService.getModel();
+        String key = keyOf(title, description, promptVersion, model);
+
+        Optional<EnrichmentCacheEntry> stored = findStored(key);
+        if (stored.isPresent()) {
+            hits.incrementAndGet();
+            return toEnrichment(stored.get());
+        }
+
+        CompletableFuture<ArticleEnrichment> mine = new CompletableFuture<>();
+        CompletableFuture<ArticleEnrichment> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // Rethrow what the computing caller saw, not the future's wrapper
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            // A computation that finished between our lookup and putIfAbsent has stored its result by now
+            Optional<EnrichmentCacheEntry> storedMeanwhile = findStored(key);
+            if (storedMeanwhile.isPresent()) {
+                hits.incrementAndGet();
+                ArticleEnrichment enrichment = toEnrichment(storedMeanwhile.get());
+                mine.complete(enrichment);
+                return enrichment;
+            }
+
+            misses.incrementAndGet();
+            ArticleEnrichment enrichment = compute.get();
+            if (enrichment.isDegraded()) {
+                notStored.incrementAndGet();
+            } else {
+                store(key, enrichment, promptVersion, model);
+            }
+            mine.complete(enrichment);
+            return enrichment;
+        } catch (RuntimeException | Error e) {
+            // Waiters must never be left blocked on a future nobody completes
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** True when an enrichment for this article version is already stored. */
+    public boolean isStored(String title, String description) {
+        String key = keyOf(title, description, openAiService.getEnrichmentPromptVersion(), openAiService.getModel());
+        return findStored(key).isPresent();
+    }
+
+    private Optional<EnrichmentCacheEntry> findStored(String key) {
+        try {
+            return cacheRepository.findByContentHash(key);
+        } catch (Exception e) {
+            System.err.println("Error reading enrichment cache: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String key, ArticleEnrichment enrichment, String promptVersion, String model) {
+        EnrichmentCacheEntry entry = new EnrichmentCacheEntry();
+        entry.setContentHash(key);
+        entry.setSummary(enrichment.getSummary());
+        entry.setRelevanceScore(enrichment.getRelevanceScore());
+        entry.setCategory(enrichment.getCategory());
+        entry.setPromptVersion(promptVersion);
+        entry.setModel(model);
+        try {
+            cacheRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the same key first
+        } catch (Exception e) {
+            System.err.println("Error writing enrichment cache: " + e.getMessage());
+        }
+    }
+
+    private ArticleEnrichment toEnrichment(EnrichmentCacheEntry entry) {
+        return new ArticleEnrichment(entry.getSummary(), entry.getRelevanceScore(), entry.getCategory());
+    }
+
+    static String keyOf(String title, String description, String promptVersion, String model) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] {title, description, promptVersion, model}) {
+                digest.update((part != null ? part : "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("degradedNotStored", notStored.get());
+        stats.put("inFlight", inFlight.size());
+        try {
+            stats.put("storedEntries", cacheRepository.count());
+        } catch (Exception e) {
+            stats.put("storedEntries", null);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,126 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.dto.FeedFetchResponse;
+import com.thecloudcode.cc.models.FeedFetchState;
+import com.thecloudcode.cc.repository.FeedFetchStateRepository;
+import com.thecloudcode.cc.util.HttpCompression;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Conditional, compressed and timeout-bounded HTTP fetching for RSS/Atom feeds.
+ * ETag and Last-Modified validators are persisted per feed URL so an unchanged
+ * feed costs a single 304 round-trip.
+ */
+@Service
+public class FeedHttpClient {
+
+    @Autowired
+    private FeedFetchStateRepository fetchStateRepository;
+
+    @Autowired
+    private HostGuardService hostGuard;
+
+    @Value("${rss.fetch.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${rss.fetch.read-timeout-ms:15000}")
+    private int readTimeoutMs;
+
+    // Limit on the decoded body, so a runaway or maliciously compressed feed cannot exhaust the heap
+    @Value("${rss.fetch.max-bytes:10485760}")
+    private int maxBytes;
+
+    @Value("${rss.fetch.user-agent:TheCloudCode-FeedCollector/1.0}")
+    private String userAgent;
+
+    public FeedFetchResponse fetch(String feedUrl) throws Exception {
+        Optional<FeedFetchState> state = fetchStateRepository.findByFeedUrl(feedUrl);
+        return hostGuard.call(feedUrl, () -> doFetch(feedUrl, state));
+    }
+
+    private FeedFetchResponse doFetch(String feedUrl, Optional<FeedFetchState> state) throws IOException {
+
+        HttpURLConnection connection = (HttpURLConnection) URI.create(feedUrl).toURL().openConnection();
+        connection.setConnectTimeout(connectTimeoutMs);
+        connection.setReadTimeout(readTimeoutMs);
+        connection.setInstanceFollowRedirects(true);
+        connection.setRequestProperty("User-Agent", userAgent);
+        connection.setRequestProperty("Accept", "application/rss+xml, application/atom+xml, application/xml;q=0.9, text/xml;q=0.8, */*;q=0.5");
+        connection.setRequestProperty("Accept-Encoding", HttpCompression.ACCEPT_ENCODING);
+
+        if (state.isPresent()) {
+            if (state.get().getEtag() != null) {
+                connection.setRequestProperty("If-None-Match", state.get().getEtag());
+            }
+            if (state.get().getLastModified() != null) {
+                connection.setRequestProperty("If-Modified-Since", state.get().getLastModified());
+            }
+        }
+
+        FeedFetchResponse response = new FeedFetchResponse();
+        response.setFeedUrl(feedUrl);
+
+        try {
+            int status = connection.getResponseCode();
+            response.setStatus(status);
+            response.setEtag(connection.getHeaderField("ETag"));
+            response.setLastModified(connection.getHeaderField("Last-Modified"));
+
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                response.setNotModified(true);
+                // A 304 may omit the validators; keep the ones we sent
+                state.ifPresent(existing -> {
+                    if (response.getEtag() == null) {
+                        response.setEtag(existing.getEtag());
+                    }
+                    if (response.getLastModified() == null) {
+                        response.setLastModified(existing.getLastModified());
+                    }
+                });
+                return response;
+            }
+
+            if (status < 200 || status >= 300) {
+                throw new HostGuardService.HttpStatusFailure("Feed request to " + feedUrl + " returned HTTP " + status, status);
+            }
+
+            response.setContentType(connection.getContentType());
+            try (InputStream body = HttpCompression.decode(connection.getInputStream(), connection.getContentEncoding())) {
+                byte[] bytes = body.readNBytes(maxBytes + 1);
+                if (bytes.length > maxBytes) {
+                    throw new IOException("Feed " + feedUrl + " exceeds " + maxBytes + " bytes");
+                }
+                response.setBody(bytes);
+                response.setBytesRead(bytes.length);
+            }
+            return response;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Stores the validators from a response. Callers should only do this after
+     * the feed's entries have been saved, otherwise a failed ingest would be
+     * hidden behind a 304 on the next poll.
+     */
+    public void recordValidators(FeedFetchResponse response) {
+        FeedFetchState state = fetchStateRepository.findByFeedUrl(response.getFeedUrl())
+            .orElseGet(() -> new FeedFetchState(response.getFeedUrl()));
+        state.setEtag(response.getEtag());
+        state.setLastModified(response.getLastModified());
+        state.setLastStatus(response.getStatus());
+        state.setLastFetchedAt(LocalDateTime.now());
+        fetchStateRepository.save(state);
+    }
+}
@@ -0,0 +1,50 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.dto.CollectionReport;
+import com.thecloudcode.cc.models.FeedSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class FeedSchedulerService {
+
+    @Autowired
+    private FeedSourceService feedSourceService;
+
+    @Autowired
+    private RSSCollectorService rssCollectorService;
+
+    @Value("${rss.scheduler.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Checks every minute for feeds whose next poll time has passed and
+     * collects just those.
+     */
+    @Scheduled(fixedDelayString = "${rss.scheduler.tick-ms:60000}", initialDelayString = "${rss.scheduler.initial-delay-ms:60000}")
+    public void pollDueFeeds() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<FeedSource> due = feedSourceService.getDueSources();
+            if (due.isEmpty()) {
+                return;
+            }
+            CollectionReport report = rssCollectorService.collectSources(due);
+            System.out.println("Scheduled poll of " + due.size() + " feeds collected " + report.getTotalCollected() + " articles");
+        } catch (Exception e) {
+            System.err.println("Error during scheduled feed poll: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+}
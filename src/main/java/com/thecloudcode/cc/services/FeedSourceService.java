@@ -0,0 +1,131 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.dto.SourceCollectionResult;
+import com.thecloudcode.cc.models.FeedSource;
+import com.thecloudcode.cc.repository.FeedSourceRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Feed registry and adaptive polling schedule. Each poll updates an
+ * exponentially weighted items-per-hour rate for the feed; the next interval
+ * is sized so a poll finds roughly {@code rss.scheduler.target-items-per-poll}
+ * new entries, clamped to the feed's bounds and jittered so polls spread out.
+ */
+@Service
+public class FeedSourceService {
+
+    private static final Map<String, String> DEFAULT_SOURCES = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_SOURCES.put("TechCrunch", "https://techcrunch.com/feed/");
+        DEFAULT_SOURCES.put("The Verge", "https://www.theverge.com/rss/index.xml");
+        DEFAULT_SOURCES.put("Wired", "https://www.wired.com/feed/tag/ai/latest/rss");
+        DEFAULT_SOURCES.put("Microsoft Dev Blogs", "https://devblogs.microsoft.com/java/feed/");
+    }
+
+    @Autowired
+    private FeedSourceRepository feedSourceRepository;
+
+    @Value("${rss.scheduler.target-items-per-poll:3}")
+    private double targetItemsPerPoll;
+
+    @Value("${rss.scheduler.rate-smoothing:0.3}")
+    private double rateSmoothing;
+
+    @Value("${rss.scheduler.jitter:0.15}")
+    private double jitter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedDefaultSources() {
+        try {
+            if (feedSourceRepository.count() > 0) {
+                return;
+            }
+            DEFAULT_SOURCES.forEach((name, url) -> feedSourceRepository.save(new FeedSource(name, url)));
+            System.out.println("Registered " + DEFAULT_SOURCES.size() + " default feed sources");
+        } catch (Exception e) {
+            System.err.println("Error seeding feed sources: " + e.getMessage());
+        }
+    }
+
+    public List<FeedSource> getEnabledSources() {
+        return feedSourceRepository.findByEnabledTrueOrderByIdAsc();
+    }
+
+    public List<FeedSource> getDueSources() {
+        return feedSourceRepository.findDueSources(LocalDateTime.now());
+    }
+
+    public List<FeedSource> getAllSources() {
+        return feedSourceRepository.findAll();
+    }
+
+    public FeedSource addSource(String name, String url) throws Exception {
+        if (feedSourceRepository.existsByUrl(url)) {
+            throw new Exception("Feed already registered");
+        }
+        return feedSourceRepository.save(new FeedSource(name, url));
+    }
+
+    public FeedSource setEnabled(Long id, boolean enabled) throws Exception {
+        FeedSource source = feedSourceRepository.findById(id)
+            .orElseThrow(() -> new Exception("Feed source not found"));
+        source.setEnabled(enabled);
+        if (enabled) {
+            source.setNextPollAt(null);
+        }
+        return feedSourceRepository.save(source);
+    }
+
+    /**
+     * Folds one poll outcome into the feed's publish-rate estimate and
+     * schedules its next poll. {@code source} is the copy loaded when the poll
+     * started, so only the scheduling columns are written back.
+     */
+    public void recordPoll(FeedSource source, SourceCollectionResult result) {
+        LocalDateTime now = LocalDateTime.now();
+        int interval = source.getPollIntervalMinutes();
+        double rate = source.getItemsPerHour();
+        LocalDateTime lastNewItemAt = null;
+
+        if (result.isSuccess()) {
+            double elapsedHours = source.getLastPolledAt() == null
+                ? interval / 60.0
+                : Math.max(1.0 / 60, Duration.between(source.getLastPolledAt(), now).toSeconds() / 3600.0);
+            double observedRate = result.getArticlesCollected() / elapsedHours;
+            rate = source.getLastPolledAt() == null
+                ? observedRate
+                : rateSmoothing * observedRate + (1 - rateSmoothing) * source.getItemsPerHour();
+
+            if (rate > 0) {
+                interval = (int) Math.round(targetItemsPerPoll / rate * 60);
+            } else {
+                interval = interval * 2;
+            }
+            if (result.getArticlesCollected() > 0) {
+                lastNewItemAt = now;
+            }
+        } else {
+            // Back off from failing feeds instead of hammering them
+            interval = interval * 2;
+        }
+
+        interval = Math.max(source.getMinPollIntervalMinutes(), Math.min(source.getMaxPollIntervalMinutes(), interval));
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        long delaySeconds = Math.max(60, Math.round(interval * 60 * factor));
+
+        feedSourceRepository.updatePollSchedule(source.getId(), interval, rate, now, now.plusSeconds(delaySeconds), lastNewItemAt);
+    }
+}
@@ -0,0 +1,144 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.util.HttpCompression;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds an article's og:image/twitter:image by streaming only the start of the
+ * page. Reading stops at {@code </head>} (or the first {@code <body>}) or after
+ * a character cap, and the connection is closed without downloading the rest.
+ */
+@Component
+public class HeadImageExtractor {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36";
+
+    @Value("${image.head.max-chars:262144}")
+    private int maxChars;
+
+    @Value("${image.head.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${image.head.read-timeout-ms:5000}")
+    private int readTimeoutMs;
+
+    private final AtomicLong pages = new AtomicLong();
+    private final AtomicLong charsRead = new AtomicLong();
+    private final AtomicLong truncatedAtCap = new AtomicLong();
+
+    public String extractImageUrl(String articleUrl) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(articleUrl).toURL().openConnection();
+        connection.setConnectTimeout(connectTimeoutMs);
+        connection.setReadTimeout(readTimeoutMs);
+        connection.setInstanceFollowRedirects(true);
+        connection.setRequestProperty("User-Agent", USER_AGENT);
+        connection.setRequestProperty("Accept", "text/html,application/xhtml+xml");
+        connection.setRequestProperty("Accept-Encoding", HttpCompression.ACCEPT_ENCODING);
+
+        try {
+            int status = connection.getResponseCode();
+            if (status < 200 || status >= 300) {
+                throw new HostGuardService.HttpStatusFailure("Article page " + articleUrl + " returned HTTP " + status, status);
+            }
+
+            String head;
+            try (InputStream body = HttpCompression.decode(connection.getInputStream(), connection.getContentEncoding());
+                 Reader reader = new InputStreamReader(body, charsetOf(connection.getContentType()))) {
+                head = readHead(reader);
+            }
+            pages.incrementAndGet();
+
+            Document doc = Jsoup.parse(head, articleUrl);
+
+            // Try og:image first
+            String image = contentOf(doc.select("meta[property=og:image]").first());
+            if (image == null) {
+                // Try twitter:image
+                image = contentOf(doc.select("meta[name=twitter:image]").first());
+            }
+            return image;
+        } finally {
+            // Drops the socket instead of draining the remaining body
+            connection.disconnect();
+        }
+    }
+
+    private String readHead(Reader reader) throws IOException {
+        StringBuilder html = new StringBuilder(8192);
+        char[] buffer = new char[4096];
+        int scanFrom = 0;
+        int read;
+        while (html.length() < maxChars && (read = reader.read(buffer, 0, Math.min(buffer.length, maxChars - html.length()))) != -1) {
+            html.append(buffer, 0, read);
+            // Re-scan a few characters behind the new data in case the tag spans two reads
+            String window = html.substring(Math.max(0, scanFrom - 6)).toLowerCase(Locale.ROOT);
+            int end = window.indexOf("</head");
+            if (end < 0) {
+                end = window.indexOf("<body");
+            }
+            if (end >= 0) {
+                html.setLength(Math.max(0, scanFrom - 6) + end);
+                charsRead.addAndGet(html.length());
+                return html.toString();
+            }
+            scanFrom = html.length();
+        }
+        if (html.length() >= maxChars) {
+            truncatedAtCap.incrementAndGet();
+        }
+        charsRead.addAndGet(html.length());
+        return html.toString();
+    }
+
+    private String contentOf(Element meta) {
+        if (meta == null) {
+            return null;
+        }
+        String content = meta.attr("content");
+        return content.startsWith("http") ? content : null;
+    }
+
+    private Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String part : contentType.split(";")) {
+                String trimmed = part.trim();
+                if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                    try {
+                        return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                    } catch (Exception e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long pageCount = pages.get();
+        stats.put("pages", pageCount);
+        stats.put("charsRead", charsRead.get());
+        stats.put("averageCharsPerPage", pageCount == 0 ? 0 : charsRead.get() / pageCount);
+        stats.put("truncatedAtCap", truncatedAtCap.get());
+        return stats;
+    }
+}
@@ -0,0 +1,242 @@
+package com.thecloudcode.cc.services;
+
+import org.jsoup.HttpStatusException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-host protection for outbound feed and page fetches: a token bucket
+ * limits request rate, a semaphore limits concurrency, and a circuit breaker
+ * fails fast once a host keeps erroring.
+ */
+@Service
+public class HostGuardService {
+
+    public enum BreakerState { CLOSED, OPEN, HALF_OPEN }
+
+    /** Thrown without contacting the host when it is throttled or its breaker is open. */
+    public static class HostUnavailableException extends IOException {
+        public HostUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    /** Non-success HTTP status from a guarded call. */
+    public static class HttpStatusFailure extends IOException {
+        private final int status;
+
+        public HttpStatusFailure(String message, int status) {
+            super(message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    @Value("${outbound.host.requests-per-second:2}")
+    private double requestsPerSecond;
+
+    @Value("${outbound.host.burst:5}")
+    private int burst;
+
+    @Value("${outbound.host.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${outbound.host.max-wait-ms:10000}")
+    private long maxWaitMs;
+
+    @Value("${outbound.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${outbound.breaker.open-seconds:120}")
+    private long openSeconds;
+
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    public <T> T call(String url, Callable<T> action) throws Exception {
+        String host = hostOf(url);
+        HostState state = hosts.computeIfAbsent(host, key -> new HostState(burst, maxConcurrent));
+
+        if (!state.allowRequest(System.currentTimeMillis())) {
+            state.rejected.incrementAndGet();
+            throw new HostUnavailableException("Circuit open for " + host);
+        }
+
+        // Any exit that does not record an outcome must free a half-open trial,
+        // or the host stays rejected for good
+        boolean outcomeRecorded = false;
+        try {
+            long deadline = System.currentTimeMillis() + maxWaitMs;
+            if (!state.acquireToken(deadline, requestsPerSecond, burst)) {
+                state.rejected.incrementAndGet();
+                throw new HostUnavailableException("Rate limit wait exceeded for " + host);
+            }
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            if (!state.inFlight.tryAcquire(remaining, TimeUnit.MILLISECONDS)) {
+                state.rejected.incrementAndGet();
+                throw new HostUnavailableException("Too many concurrent requests to " + host);
+            }
+
+            try {
+                T result = action.call();
+                state.recordSuccess();
+                outcomeRecorded = true;
+                return result;
+            } catch (Exception e) {
+                if (isHostFailure(e)) {
+                    state.recordFailure(System.currentTimeMillis(), failureThreshold, openSeconds * 1000);
+                } else {
+                    state.recordSuccess();
+                }
+                outcomeRecorded = true;
+                throw e;
+            } finally {
+                state.inFlight.release();
+            }
+        } finally {
+            if (!outcomeRecorded) {
+                state.releaseTrial();
+            }
+        }
+    }
+
+    public Map<String, Object> getHostStates() {
+        Map<String, Object> view = new TreeMap<>();
+        long now = System.currentTimeMillis();
+        hosts.forEach((host, state) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            synchronized (state) {
+                entry.put("state", state.currentState(now));
+                entry.put("consecutiveFailures", state.consecutiveFailures);
+                entry.put("openUntil", state.breaker == BreakerState.OPEN ? state.openUntil : null);
+                entry.put("tokens", Math.floor(state.tokens * 100) / 100);
+            }
+            entry.put("inFlight", maxConcurrent - state.inFlight.availablePermits());
+            entry.put("successes", state.successes.get());
+            entry.put("failures", state.failures.get());
+            entry.put("rejected", state.rejected.get());
+            view.put(host, entry);
+        });
+        return view;
+    }
+
+    /**
+     * Client errors other than 429 say nothing about the host's health, so
+     * they do not count towards opening the breaker.
+     */
+    private boolean isHostFailure(Exception e) {
+        int status = -1;
+        if (e instanceof HttpStatusFailure failure) {
+            status = failure.getStatus();
+        } else if (e instanceof HttpStatusException jsoupStatus) {
+            status = jsoupStatus.getStatusCode();
+        }
+        return status < 400 || status >= 500 || status == 429;
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static final class HostState {
+        private final Semaphore inFlight;
+        private double tokens;
+        private long lastRefill = System.currentTimeMillis();
+
+        private BreakerState breaker = BreakerState.CLOSED;
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInProgress;
+
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        private HostState(int burst, int maxConcurrent) {
+            this.tokens = burst;
+            this.inFlight = new Semaphore(maxConcurrent);
+        }
+
+        private synchronized BreakerState currentState(long now) {
+            if (breaker == BreakerState.OPEN && now >= openUntil) {
+                return BreakerState.HALF_OPEN;
+            }
+            return breaker;
+        }
+
+        /** An open breaker lets a single trial request through once its timeout has passed. */
+        private synchronized boolean allowRequest(long now) {
+            if (breaker == BreakerState.CLOSED) {
+                return true;
+            }
+            if (breaker == BreakerState.OPEN && now < openUntil) {
+                return false;
+            }
+            if (trialInProgress) {
+                return false;
+            }
+            breaker = BreakerState.HALF_OPEN;
+            trialInProgress = true;
+            return true;
+        }
+
+        private synchronized void releaseTrial() {
+            trialInProgress = false;
+        }
+
+        private boolean acquireToken(long deadline, double ratePerSecond, int capacity) throws InterruptedException {
+            while (true) {
+                long waitMs;
+                synchronized (this) {
+                    long now = System.currentTimeMillis();
+                    tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerSecond / 1000.0);
+                    lastRefill = now;
+                    if (tokens >= 1) {
+                        tokens -= 1;
+                        return true;
+                    }
+                    waitMs = (long) Math.ceil((1 - tokens) * 1000.0 / ratePerSecond);
+                    if (now + waitMs > deadline) {
+                        return false;
+                    }
+                }
+                Thread.sleep(waitMs);
+            }
+        }
+
+        private synchronized void recordSuccess() {
+            successes.incrementAndGet();
+            consecutiveFailures = 0;
+            trialInProgress = false;
+            breaker = BreakerState.CLOSED;
+        }
+
+        private synchronized void recordFailure(long now, int threshold, long openMs) {
+            failures.incrementAndGet();
+            consecutiveFailures++;
+            if (breaker == BreakerState.HALF_OPEN || consecutiveFailures >= threshold) {
+                breaker = BreakerState.OPEN;
+                openUntil = now + openMs;
+            }
+            trialInProgress = false;
+        }
+    }
+}
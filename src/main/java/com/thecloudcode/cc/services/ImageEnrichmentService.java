@@ -0,0 +1,244 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.models.NewsArticle;
+import com.thecloudcode.cc.repository.NewsArticleRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background og:image/twitter:image discovery for articles whose feed entry
+ * carried no image. Ingest saves the article straight away; a bounded worker
+ * pool fetches the article pages and the results are written back in batches.
+ * Lookups dropped on a full queue, or skipped while a domain was backed off,
+ * are picked up again by a periodic sweep of recent articles without images.
+ */
+@Service
+public class ImageEnrichmentService {
+
+    @Autowired
+    private NewsArticleRepository articleRepository;
+
+    @Autowired
+    private ArticlePersistenceService articlePersistenceService;
+
+    @Autowired
+    private ImageLookupCache lookupCache;
+
+    @Autowired
+    private HostGuardService hostGuard;
+
+    @Autowired
+    private HeadImageExtractor headImageExtractor;
+
+    @Value("${image.enrichment.workers:4}")
+    private int workerCount;
+
+    @Value("${image.enrichment.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${image.enrichment.batch-size:50}")
+    private int batchSize;
+
+    @Value("${image.enrichment.sweep-hours:48}")
+    private long sweepHours;
+
+    private ThreadPoolExecutor executor;
+
+    // Resolved (articleId, imageUrl) pairs waiting for the next batched update
+    private final ConcurrentLinkedQueue<Map.Entry<Long, String>> pendingUpdates = new ConcurrentLinkedQueue<>();
+
+    // Articles queued or being looked up, so a sweep never queues them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong swept = new AtomicLong();
+    private final AtomicLong resolved = new AtomicLong();
+    private final AtomicLong unresolved = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            workerCount, workerCount, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-enrichment-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues page lookups for saved articles that still have no image.
+     * Never blocks the caller; work beyond the queue capacity is dropped.
+     * Inside a transaction the lookups are deferred until it commits.
+     */
+    public void enqueue(List<NewsArticle> articles) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<NewsArticle> saved = new ArrayList<>(articles);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(saved);
+                }
+            });
+        } else {
+            submit(articles);
+        }
+    }
+
+    private void submit(List<NewsArticle> articles) {
+        for (NewsArticle article : articles) {
+            if (article.getId() == null || article.getImageUrl() != null || article.getUrl() == null) {
+                continue;
+            }
+            Long id = article.getId();
+            String url = article.getUrl();
+            if (!inFlight.add(id)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> enrich(id, url));
+                enqueued.incrementAndGet();
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(id);
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void enrich(Long articleId, String articleUrl) {
+        try {
+            String imageUrl = resolveImage(articleUrl);
+            if (imageUrl != null) {
+                System.out.println("✓ Found og:image from page: " + imageUrl);
+                resolved.incrementAndGet();
+                pendingUpdates.add(Map.entry(articleId, imageUrl));
+            } else {
+                unresolved.incrementAndGet();
+            }
+        } finally {
+            inFlight.remove(articleId);
+        }
+    }
+
+    /**
+     * Re-queues recent articles that still have no image. Cached misses and
+     * backed-off domains are answered by the lookup cache without a fetch, so
+     * only lookups that were dropped or whose back-off has expired reach the
+     * network again.
+     */
+    @Scheduled(fixedDelayString = "${image.enrichment.sweep-interval-ms:600000}",
+               initialDelayString = "${image.enrichment.sweep-interval-ms:600000}")
+    public void sweepMissingImages() {
+        try {
+            List<NewsArticle> missing = articleRepository.findTop200ByImageUrlIsNullAndCreatedAtAfterOrderByIdDesc(
+                LocalDateTime.now().minusHours(sweepHours));
+            if (missing.isEmpty()) {
+                return;
+            }
+            swept.addAndGet(missing.size());
+            submit(missing);
+        } catch (Exception e) {
+            System.err.println("Error sweeping articles without images: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes resolved image URLs back in batches with a targeted UPDATE of the
+     * image column, so rows are never reloaded and saved whole.
+     */
+    @Scheduled(fixedDelayString = "${image.enrichment.flush-interval-ms:5000}")
+    public void flushPendingUpdates() {
+        while (!pendingUpdates.isEmpty()) {
+            Map<Long, String> batch = new HashMap<>();
+            Map.Entry<Long, String> next;
+            while (batch.size() < batchSize && (next = pendingUpdates.poll()) != null) {
+                batch.put(next.getKey(), next.getValue());
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            updated.addAndGet(articlePersistenceService.updateImageUrls(batch));
+        }
+    }
+
+    /**
+     * Resolves an article's preview image through the lookup cache, fetching
+     * the page only when neither the URL nor its domain is known to fail.
+     */
+    public String resolveImage(String articleUrl) {
+        ImageLookupCache.Lookup lookup = lookupCache.lookup(articleUrl);
+        if (!lookup.needsFetch()) {
+            return lookup.imageUrl();
+        }
+        String imageUrl;
+        try {
+            imageUrl = hostGuard.call(articleUrl, () -> getImageFromArticlePage(articleUrl));
+        } catch (HostGuardService.HostUnavailableException e) {
+            // Transient host protection, not a verdict on this article
+            System.out.println("Skipping og:image fetch: " + e.getMessage());
+            return null;
+        } catch (Exception e) {
+            System.err.println("Error fetching image from article page: " + e.getMessage());
+            imageUrl = null;
+        }
+        lookupCache.recordResult(articleUrl, imageUrl);
+        return imageUrl;
+    }
+
+    private String getImageFromArticlePage(String articleUrl) throws IOException {
+        System.out.println("Fetching og:image from: " + articleUrl);
+        return headImageExtractor.extractImageUrl(articleUrl);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enqueued", enqueued.get());
+        stats.put("dropped", dropped.get());
+        stats.put("swept", swept.get());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("active", executor.getActiveCount());
+        stats.put("resolved", resolved.get());
+        stats.put("unresolved", unresolved.get());
+        stats.put("pendingUpdates", pendingUpdates.size());
+        stats.put("updated", updated.get());
+        stats.put("cache", lookupCache.getStats());
+        stats.put("pageReads", headImageExtractor.getStats());
+        return stats;
+    }
+}
@@ -0,0 +1,150 @@
+package com.thecloudcode.cc.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers og:image lookups so article pages are not fetched twice.
+ * Resolved URLs live in a bounded LRU map, misses are cached for a limited
+ * time, and domains that keep failing are skipped with growing back-off.
+ */
+@Component
+public class ImageLookupCache {
+
+    /** Outcome of a cache lookup. */
+    public enum Probe { HIT, NEGATIVE_HIT, DOMAIN_SKIPPED, MISS }
+
+    public record Lookup(Probe probe, String imageUrl) {
+
+        /** True when the caller should fetch the article page. */
+        public boolean needsFetch() {
+            return probe == Probe.MISS;
+        }
+    }
+
+    @Value("${image.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${image.cache.negative-ttl-minutes:360}")
+    private long negativeTtlMinutes;
+
+    @Value("${image.cache.domain-failure-threshold:3}")
+    private int domainFailureThreshold;
+
+    @Value("${image.cache.domain-backoff-minutes:30}")
+    private long domainBackoffMinutes;
+
+    @Value("${image.cache.domain-max-backoff-minutes:1440}")
+    private long domainMaxBackoffMinutes;
+
+    private final Map<String, CachedImage> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedImage> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final Map<String, DomainState> domains = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong domainSkips = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Lookup lookup(String articleUrl) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedImage cached = entries.get(articleUrl);
+            if (cached != null) {
+                if (cached.imageUrl != null) {
+                    hits.incrementAndGet();
+                    return new Lookup(Probe.HIT, cached.imageUrl);
+                }
+                if (cached.expiresAt > now) {
+                    negativeHits.incrementAndGet();
+                    return new Lookup(Probe.NEGATIVE_HIT, null);
+                }
+                entries.remove(articleUrl);
+            }
+        }
+
+        DomainState domain = domains.get(domainOf(articleUrl));
+        if (domain != null && domain.skipUntil > now) {
+            domainSkips.incrementAndGet();
+            return new Lookup(Probe.DOMAIN_SKIPPED, null);
+        }
+
+        misses.incrementAndGet();
+        return new Lookup(Probe.MISS, null);
+    }
+
+    public void recordResult(String articleUrl, String imageUrl) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            long expiresAt = imageUrl != null ? Long.MAX_VALUE : now + negativeTtlMinutes * 60_000;
+            entries.put(articleUrl, new CachedImage(imageUrl, expiresAt));
+        }
+
+        String domain = domainOf(articleUrl);
+        if (imageUrl != null) {
+            domains.remove(domain);
+            return;
+        }
+        domains.compute(domain, (key, state) -> {
+            DomainState next = state != null ? state : new DomainState();
+            next.failures++;
+            if (next.failures >= domainFailureThreshold) {
+                int steps = Math.min(next.failures - domainFailureThreshold, 10);
+                long backoffMinutes = Math.min(domainMaxBackoffMinutes, domainBackoffMinutes << steps);
+                next.skipUntil = now + backoffMinutes * 60_000;
+            }
+            return next;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+        }
+        long now = System.currentTimeMillis();
+        stats.put("hits", hits.get());
+        stats.put("negativeHits", negativeHits.get());
+        stats.put("domainSkips", domainSkips.get());
+        stats.put("misses", misses.get());
+        stats.put("pageFetchesAvoided", hits.get() + negativeHits.get() + domainSkips.get());
+        stats.put("suppressedDomains", domains.values().stream().filter(state -> state.skipUntil > now).count());
+        return stats;
+    }
+
+    static String domainOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static final class CachedImage {
+        private final String imageUrl;
+        private final long expiresAt;
+
+        private CachedImage(String imageUrl, long expiresAt) {
+            this.imageUrl = imageUrl;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class DomainState {
+        private int failures;
+        private long skipUntil;
+    }
+}
@@ -0,0 +1,136 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.models.NewsArticle;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enriches articles as they are ingested instead of when a newsletter is
+ * built. The collector publishes each saved batch here; a single consumer
+ * thread drains the queue and runs the articles through the same enrichment
+ * path as processing, so the results land in the enrichment cache and the
+ * digest later finds every recent article already scored.
+ */
+@Service
+public class IngestEnrichmentService {
+
+    @Autowired
+    private ContentProcessingService contentProcessingService;
+
+    @Value("${enrichment.ingest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${enrichment.ingest.queue-capacity:2000}")
+    private int queueCapacity;
+
+    // Most articles handed to the OpenAI pool in one go
+    @Value("${enrichment.ingest.max-batch:20}")
+    private int maxBatch;
+
+    private BlockingQueue<NewsArticle> queue;
+    private Thread consumer;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong enriched = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (!enabled) {
+            return;
+        }
+        consumer = new Thread(this::consume, "ingest-enrichment");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (consumer != null) {
+            consumer.interrupt();
+        }
+    }
+
+    /**
+     * Publishes saved articles for enrichment. Never blocks the caller;
+     * articles beyond the queue capacity are dropped and left to the next
+     * processing run. Inside a transaction they are published once it commits.
+     */
+    public void publish(List<NewsArticle> articles) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<NewsArticle> saved = new ArrayList<>(articles);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(saved);
+                }
+            });
+        } else {
+            offer(articles);
+        }
+    }
+
+    private void offer(List<NewsArticle> articles) {
+        for (NewsArticle article : articles) {
+            if (article.getId() == null) {
+                continue;
+            }
+            if (queue.offer(article)) {
+                enqueued.incrementAndGet();
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void consume() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<NewsArticle> batch = new ArrayList<>(maxBatch);
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+
+            try {
+                contentProcessingService.enrichArticles(batch, processed -> enriched.incrementAndGet());
+            } catch (Exception e) {
+                // Left for the next processing run, which enriches anything not cached
+                failedBatches.incrementAndGet();
+                System.err.println("Error enriching " + batch.size() + " ingested articles: " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("enqueued", enqueued.get());
+        stats.put("dropped", dropped.get());
+        stats.put("queued", queue.size());
+        stats.put("enriched", enriched.get());
+        stats.put("failedBatches", failedBatches.get());
+        return stats;
+    }
+}
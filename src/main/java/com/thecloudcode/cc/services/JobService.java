@@ -0,0 +1,176 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.dto.Job;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs long admin operations (processing, newsletter generation, sends) in
+ * the background on a small bounded pool. Submitting an operation that is
+ * already queued or running returns the existing job instead of starting a
+ * second run; finished jobs stay queryable until evicted by newer ones.
+ */
+@Service
+public class JobService {
+
+    /** Shared by every job that runs article processing, so the pipeline never runs twice at once. */
+    public static final String PROCESSING_KEY = "process-articles";
+
+    /** The job a submission maps to, and whether it joined one already in flight. */
+    public record Submission(Job job, boolean duplicate) { }
+
+    @Value("${jobs.workers:2}")
+    private int workerCount;
+
+    @Value("${jobs.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${jobs.history-size:100}")
+    private int historySize;
+
+    private ThreadPoolExecutor executor;
+
+    // Queued or running job per de-duplication key
+    private final Map<String, Job> inFlight = new ConcurrentHashMap<>();
+
+    // All jobs by id, oldest first; finished ones are evicted beyond historySize
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            workerCount, workerCount, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts {@code work} as a job of the given type, or returns the job
+     * already in flight for {@code dedupKey}. The work receives its job so it
+     * can report progress, and its return value becomes the job result.
+     * Throws IllegalStateException when the job queue is full.
+     */
+    public Submission submit(String type, String dedupKey, Function<Job, Object> work) {
+        Job job;
+        synchronized (inFlight) {
+            Job existing = inFlight.get(dedupKey);
+            if (existing != null) {
+                return new Submission(existing, true);
+            }
+
+            job = new Job(UUID.randomUUID().toString(), type);
+            try {
+                executor.execute(() -> run(job, dedupKey, work));
+            } catch (RejectedExecutionException e) {
+                throw new IllegalStateException("Too many jobs queued, try again later");
+            }
+            inFlight.put(dedupKey, job);
+            remember(job);
+        }
+        return new Submission(job, false);
+    }
+
+    /**
+     * As {@link #submit}, but work that finds the queue full runs on the
+     * calling thread instead of being rejected, still under its de-duplication
+     * key. For scheduled work that must not be dropped.
+     */
+    public Submission submitOrRun(String type, String dedupKey, Function<Job, Object> work) {
+        Job job;
+        synchronized (inFlight) {
+            Job existing = inFlight.get(dedupKey);
+            if (existing != null) {
+                return new Submission(existing, true);
+            }
+
+            job = new Job(UUID.randomUUID().toString(), type);
+            inFlight.put(dedupKey, job);
+            remember(job);
+            try {
+                executor.execute(() -> run(job, dedupKey, work));
+                return new Submission(job, false);
+            } catch (RejectedExecutionException e) {
+                System.err.println("Job queue full, running " + type + " " + job.getId() + " on the calling thread");
+            }
+        }
+        run(job, dedupKey, work);
+        return new Submission(job, false);
+    }
+
+    private void run(Job job, String dedupKey, Function<Job, Object> work) {
+        job.setStartedAt(LocalDateTime.now());
+        job.setStatus(Job.Status.RUNNING);
+        try {
+            job.setResult(work.apply(job));
+            job.setStatus(Job.Status.SUCCEEDED);
+        } catch (Exception e) {
+            System.err.println("Job " + job.getType() + " " + job.getId() + " failed: " + e.getMessage());
+            job.setError(e.getMessage());
+            job.setStatus(Job.Status.FAILED);
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+            synchronized (inFlight) {
+                inFlight.remove(dedupKey, job);
+            }
+        }
+    }
+
+    private void remember(Job job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            Iterator<Job> iterator = jobs.values().iterator();
+            while (jobs.size() > historySize && iterator.hasNext()) {
+                if (iterator.next().isFinished()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public Job getJob(String id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    public List<Job> getJobs() {
+        synchronized (jobs) {
+            List<Job> newestFirst = new ArrayList<>(jobs.values());
+            Collections.reverse(newestFirst);
+            return newestFirst;
+        }
+    }
+}
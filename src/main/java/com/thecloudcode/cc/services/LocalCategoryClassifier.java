@@ -0,0 +1,239 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.models.NewsArticle;
+import com.thecloudcode.cc.repository.NewsArticleRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process category model trained on the categories OpenAI has already
+ * assigned. Articles are TF-IDF vectors over title, text, a source token and
+ * per-category seed keywords; each category is the centroid of its examples
+ * and a prediction is the nearest centroid by cosine similarity. Confidence is
+ * the relative margin over the runner-up, scaled down for weak matches, and
+ * only confident predictions are used in place of a categorization request.
+ */
+@Service
+public class LocalCategoryClassifier {
+
+    public record Prediction(String category, double confidence, boolean confident) { }
+
+    private static final Map<String, String> SEED_KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        SEED_KEYWORDS.put("AI/ML", "ai artificial intelligence machine learning model llm gpt openai neural chatbot generative anthropic gemini");
+        SEED_KEYWORDS.put("Startups/Funding", "startup funding raises series seed round valuation investors venture capital vc acquisition ipo");
+        SEED_KEYWORDS.put("Consumer Tech", "iphone android smartphone app streaming headphones tv gaming console smartwatch wearable consumer");
+        SEED_KEYWORDS.put("Enterprise/Business", "enterprise business revenue earnings customers saas cloud contract layoffs ceo market");
+        SEED_KEYWORDS.put("Security/Privacy", "security privacy breach hack hackers vulnerability ransomware malware exploit password encryption");
+        SEED_KEYWORDS.put("Developer Tools", "developer developers api sdk github open source programming java python framework release ide");
+        SEED_KEYWORDS.put("Hardware", "chip chips processor gpu cpu nvidia intel amd semiconductor hardware laptop battery device");
+    }
+
+    // Cosine similarity at which a match counts as strong enough to trust its margin fully
+    private static final double FULL_CONFIDENCE_SIMILARITY = 0.25;
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "the", "a", "an", "and", "or", "of", "to", "in", "on", "for", "with", "is", "are", "was", "were",
+        "it", "its", "this", "that", "by", "as", "at", "from", "be", "has", "have", "will", "new", "can",
+        "more", "how", "what", "you", "your", "we", "our", "they", "their", "but", "not", "about", "after"
+    );
+
+    @Autowired
+    private NewsArticleRepository articleRepository;
+
+    @Value("${classifier.confidence-threshold:0.35}")
+    private double confidenceThreshold;
+
+    @Value("${classifier.min-training-examples:100}")
+    private int minTrainingExamples;
+
+    // Per category: summed term frequencies of its examples, and example count
+    private final Map<String, Map<String, Double>> categoryTerms = new HashMap<>();
+    private final Map<String, Integer> categoryDocs = new HashMap<>();
+    // Number of examples containing each term, for IDF
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+    private int trainingExamples;
+
+    // Centroid norms depend on IDF, so they are recomputed after any update
+    private Map<String, Double> centroidNorms;
+
+    private final AtomicLong predictions = new AtomicLong();
+    private final AtomicLong confidentPredictions = new AtomicLong();
+    private final AtomicLong avoidedCalls = new AtomicLong();
+    private final AtomicLong learned = new AtomicLong();
+
+    public LocalCategoryClassifier() {
+        SEED_KEYWORDS.forEach((category, keywords) -> addExample(category, termFrequencies(keywords)));
+        trainingExamples = 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void train() {
+        try {
+            List<NewsArticle> labelled = articleRepository.findTop5000ByCategorySourceOrderByIdDesc(NewsArticle.CATEGORY_SOURCE_LLM);
+            for (NewsArticle article : labelled) {
+                learn(article.getTitle(), article.getDescription(), article.getSource(), article.getCategory());
+            }
+            learned.set(0);
+            System.out.println("Local category classifier trained on " + labelled.size() + " articles");
+        } catch (Exception e) {
+            System.err.println("Error training local category classifier: " + e.getMessage());
+        }
+    }
+
+    /** Adds one OpenAI-assigned category as a training example. */
+    public synchronized void learn(String title, String text, String source, String category) {
+        if (category == null || !SEED_KEYWORDS.containsKey(category)) {
+            return;
+        }
+        addExample(category, termFrequencies(title, text, source));
+        trainingExamples++;
+        learned.incrementAndGet();
+    }
+
+    public synchronized Prediction classify(String title, String text, String source) {
+        predictions.incrementAndGet();
+        if (trainingExamples < minTrainingExamples) {
+            return new Prediction(null, 0, false);
+        }
+        if (centroidNorms == null) {
+            centroidNorms = computeCentroidNorms();
+        }
+
+        Map<String, Double> document = tfidf(termFrequencies(title, text, source));
+        double documentNorm = norm(document.values());
+        if (documentNorm == 0) {
+            return new Prediction(null, 0, false);
+        }
+
+        String best = null;
+        double bestScore = 0;
+        double secondScore = 0;
+        for (String category : categoryTerms.keySet()) {
+            double centroidNorm = centroidNorms.getOrDefault(category, 0.0);
+            if (centroidNorm == 0) {
+                continue;
+            }
+            Map<String, Double> terms = categoryTerms.get(category);
+            int docs = categoryDocs.get(category);
+            double dot = 0;
+            for (Map.Entry<String, Double> term : document.entrySet()) {
+                Double count = terms.get(term.getKey());
+                if (count != null) {
+                    dot += term.getValue() * count / docs * idf(term.getKey());
+                }
+            }
+            double score = dot / (documentNorm * centroidNorm);
+            if (score > bestScore) {
+                secondScore = bestScore;
+                bestScore = score;
+                best = category;
+            } else if (score > secondScore) {
+                secondScore = score;
+            }
+        }
+
+        // Margin over the runner-up, discounted when the best match is itself weak
+        double margin = bestScore > 0 ? (bestScore - secondScore) / bestScore : 0;
+        double confidence = margin * Math.min(1.0, bestScore / FULL_CONFIDENCE_SIMILARITY);
+        boolean confident = best != null && confidence >= confidenceThreshold;
+        if (confident) {
+            confidentPredictions.incrementAndGet();
+        }
+        return new Prediction(best, confidence, confident);
+    }
+
+    public void recordAvoidedCall() {
+        avoidedCalls.incrementAndGet();
+    }
+
+    private void addExample(String category, Map<String, Double> frequencies) {
+        Map<String, Double> terms = categoryTerms.computeIfAbsent(category, key -> new HashMap<>());
+        frequencies.forEach((term, count) -> {
+            terms.merge(term, count, Double::sum);
+            documentFrequency.merge(term, 1, Integer::sum);
+        });
+        categoryDocs.merge(category, 1, Integer::sum);
+        centroidNorms = null;
+    }
+
+    private Map<String, Double> computeCentroidNorms() {
+        Map<String, Double> norms = new HashMap<>();
+        categoryTerms.forEach((category, terms) -> {
+            int docs = categoryDocs.get(category);
+            List<Double> weights = new ArrayList<>(terms.size());
+            terms.forEach((term, count) -> weights.add(count / docs * idf(term)));
+            norms.put(category, norm(weights));
+        });
+        return norms;
+    }
+
+    private Map<String, Double> tfidf(Map<String, Double> frequencies) {
+        Map<String, Double> weights = new HashMap<>();
+        frequencies.forEach((term, count) -> weights.put(term, count * idf(term)));
+        return weights;
+    }
+
+    private double idf(String term) {
+        int totalDocs = categoryDocs.values().stream().mapToInt(Integer::intValue).sum();
+        return Math.log((1.0 + totalDocs) / (1.0 + documentFrequency.getOrDefault(term, 0))) + 1;
+    }
+
+    private static double norm(Iterable<Double> values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /** Title words count twice; the source becomes a single {@code src:} token. */
+    private static Map<String, Double> termFrequencies(String title, String text, String source) {
+        Map<String, Double> frequencies = termFrequencies(title);
+        frequencies.replaceAll((term, count) -> count * 2);
+        termFrequencies(ArticleNormalizationService.toPlainText(text)).forEach((term, count) -> frequencies.merge(term, count, Double::sum));
+        if (source != null && !source.isBlank()) {
+            frequencies.merge("src:" + source.toLowerCase(Locale.ROOT), 1.0, Double::sum);
+        }
+        return frequencies;
+    }
+
+    private static Map<String, Double> termFrequencies(String text) {
+        Map<String, Double> frequencies = new HashMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^a-z0-9+#]+")) {
+            if (token.length() > 1 && !STOPWORDS.contains(token)) {
+                frequencies.merge(token, 1.0, Double::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trainingExamples", trainingExamples);
+        stats.put("learnedSinceStartup", learned.get());
+        stats.put("active", trainingExamples >= minTrainingExamples);
+        stats.put("confidenceThreshold", confidenceThreshold);
+        stats.put("predictions", predictions.get());
+        stats.put("confidentPredictions", confidentPredictions.get());
+        stats.put("avoidedLlmCalls", avoidedCalls.get());
+        return stats;
+    }
+}
@@ -0,0 +1,95 @@
+package com.thecloudcode.cc.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Offline stand-in for a sentence-embedding model. Words and adjacent word
+ * pairs are feature-hashed with a random sign into a fixed number of
+ * dimensions and the vector is L2-normalized, so the dot product of two
+ * embeddings is their cosine similarity and texts sharing vocabulary land
+ * close together. Replaceable by a real model with the same dimensions.
+ */
+@Component
+public class LocalTextEmbedder {
+
+    public static final int DIMENSIONS = 128;
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "the", "a", "an", "and", "or", "of", "to", "in", "on", "for", "with", "is", "are", "was", "were",
+        "it", "its", "this", "that", "by", "as", "at", "from", "be", "has", "have", "will", "new", "can",
+        "more", "how", "what", "you", "your", "we", "our", "they", "their", "but", "not", "about", "after",
+        "says", "said", "now", "just", "here", "into", "over", "out", "up"
+    );
+
+    public float[] embed(String title, String text) {
+        float[] vector = new float[DIMENSIONS];
+        // Headlines carry the topic, so their terms count double
+        addTerms(vector, title, 2f);
+        addTerms(vector, ArticleNormalizationService.toPlainText(text), 1f);
+        normalize(vector);
+        return vector;
+    }
+
+    private static void addTerms(float[] vector, String text, float weight) {
+        if (text == null) {
+            return;
+        }
+        String previous = null;
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^a-z0-9+#]+")) {
+            if (token.length() < 2 || STOPWORDS.contains(token)) {
+                previous = null;
+                continue;
+            }
+            String term = stem(token);
+            add(vector, term, weight);
+            if (previous != null) {
+                add(vector, previous + " " + term, weight * 0.5f);
+            }
+            previous = term;
+        }
+    }
+
+    /** Folds the most common plural forms so "chips" and "chip" share a feature. */
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    private static void add(float[] vector, String feature, float weight) {
+        int hash = mix(feature.hashCode());
+        int index = (hash >>> 1) % DIMENSIONS;
+        vector[index] += (hash & 1) == 0 ? weight : -weight;
+    }
+
+    /** Murmur3 finalizer, spreading String.hashCode's weak low bits. */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static void normalize(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        if (sum == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.repository.NewsArticleRepository;
+import com.thecloudcode.cc.util.SimHash;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of SimHash fingerprints for recently ingested stories. New entries
+ * within {@code rss.near-duplicate.max-distance} bits of an indexed story are
+ * treated as the same story reported again.
+ */
+@Service
+public class NearDuplicateDetector {
+
+    @Autowired
+    private NewsArticleRepository articleRepository;
+
+    @Value("${rss.near-duplicate.max-distance:3}")
+    private int maxDistance;
+
+    @Value("${rss.near-duplicate.window-hours:72}")
+    private long windowHours;
+
+    @Value("${rss.near-duplicate.min-tokens:8}")
+    private int minTokens;
+
+    // Oldest first, so expiry only ever trims the head
+    private final ArrayDeque<IndexedStory> recent = new ArrayDeque<>();
+
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong nearDuplicates = new AtomicLong();
+
+    public Long fingerprint(String title, String description) {
+        return SimHash.fingerprint((title == null ? "" : title) + " " + (description == null ? "" : description), minTokens);
+    }
+
+    public synchronized void load() {
+        LocalDateTime since = LocalDateTime.now().minusHours(windowHours);
+        List<Object[]> rows = articleRepository.findRecentFingerprints(since);
+        recent.clear();
+        for (Object[] row : rows) {
+            recent.addLast(new IndexedStory((Long) row[0], (String) row[1], (LocalDateTime) row[2]));
+        }
+        System.out.println("Loaded " + recent.size() + " story fingerprints for near-duplicate detection");
+    }
+
+    /**
+     * Returns the URL of an indexed story close to {@code fingerprint}, or
+     * registers the fingerprint and returns {@code null} if there is none.
+     * Checking and registering together keeps two sources ingesting the same
+     * story at the same time from both getting through.
+     */
+    public synchronized String checkAndRegister(Long fingerprint, String url) {
+        if (fingerprint == null) {
+            return null;
+        }
+        checked.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusHours(windowHours);
+        while (!recent.isEmpty() && recent.peekFirst().indexedAt.isBefore(cutoff)) {
+            recent.pollFirst();
+        }
+
+        for (IndexedStory story : recent) {
+            // The same URL is URL de-duplication's call, never a near-duplicate of itself
+            if (!Objects.equals(story.url, url) && SimHash.distance(story.fingerprint, fingerprint) <= maxDistance) {
+                nearDuplicates.incrementAndGet();
+                return story.url;
+            }
+        }
+        recent.addLast(new IndexedStory(fingerprint, url, now));
+        return null;
+    }
+
+    /**
+     * Withdraws a fingerprint registered by {@link #checkAndRegister} for an
+     * article that was then not saved, so a later poll can still ingest it.
+     */
+    public synchronized void unregister(Long fingerprint, String url) {
+        if (fingerprint == null) {
+            return;
+        }
+        recent.removeIf(story -> story.fingerprint == fingerprint && Objects.equals(story.url, url));
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("indexedStories", recent.size());
+        stats.put("checked", checked.get());
+        stats.put("nearDuplicates", nearDuplicates.get());
+        stats.put("maxDistance", maxDistance);
+        return stats;
+    }
+
+    private record IndexedStory(long fingerprint, String url, LocalDateTime indexedAt) {
+    }
+}
@@ -1,4 +1,5 @@
 package com.thecloudcode.cc.services;
+import com.thecloudcode.cc.dto.Job;
 import com.thecloudcode.cc.models.Subscriber;
 import com.thecloudcode.cc.models.NewsArticle;
 import com.thecloudcode.cc.repository.SubscriberRepository;
@@ -26,10 +27,36 @@ public class NewsletterSchedulerService {
     @Autowired
     private NewsletterTemplateService templateService;
 
+    @Autowired
+    private JobService jobService;
+
     /**
      * Sends the daily newsletter every weekday at 8 AM IST
      */
     @Scheduled(cron = "0 0 8 * * MON-FRI", zone = "Asia/Kolkata")
+    public void scheduleDailyNewsletter() {
+        try {
+            // Runs on the scheduler thread if the job queue is full, rather than skipping the day
+            jobService.submitOrRun("send-daily", "send-daily", this::runDailySend);
+        } catch (Exception e) {
+            System.err.println("Scheduled daily newsletter failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues the daily send as a job. Manual triggers and the schedule share
+     * one de-duplication key, so a send already in flight is never repeated.
+     */
+    public JobService.Submission submitDailyNewsletter() {
+        return jobService.submit("send-daily", "send-daily", this::runDailySend);
+    }
+
+    private Object runDailySend(Job job) {
+        job.setPhase("sending daily newsletter");
+        sendDailyNewsletter();
+        return "Daily newsletter sent successfully.";
+    }
+
     public void sendDailyNewsletter() {
         LocalDateTime from = LocalDateTime.now().minus(24, ChronoUnit.HOURS);
         List<NewsArticle> recentArticles = newsArticleRepository.findByPublishedDateAfterOrderByPublishedDateDesc(from);
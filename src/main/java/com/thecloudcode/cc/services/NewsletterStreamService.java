@@ -0,0 +1,223 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.dto.Job;
+import com.thecloudcode.cc.dto.ProcessedArticle;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Streams newsletter generation as server-sent events. Generation runs as a
+ * {@link JobService} job under the processing key shared with
+ * {@code POST /process} and {@code /generate-newsletter}, so at most one run is in flight: clients
+ * connecting while a stream run is going join it (and are replayed the events
+ * so far), up to {@code newsletter.stream.max-subscribers}. A run whose
+ * clients have all disconnected stops instead of spending further OpenAI calls.
+ *
+ * <p>Events: {@code article} per enriched article, {@code top-articles},
+ * {@code newsletter} (subject and preview), then {@code complete}; or
+ * {@code error} if generation fails or the stream cannot be joined.
+ */
+@Service
+public class NewsletterStreamService {
+
+    @Autowired
+    private ContentProcessingService contentProcessingService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Value("${newsletter.stream.timeout-ms:600000}")
+    private long timeoutMs;
+
+    @Value("${newsletter.stream.max-subscribers:5}")
+    private int maxSubscribers;
+
+    // The stream run in flight, if any; guarded by this
+    private Run current;
+
+    public SseEmitter streamNewsletter() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        synchronized (this) {
+            if (current != null) {
+                if (!current.attach(emitter, maxSubscribers)) {
+                    return rejected(emitter, "Too many clients are streaming this newsletter run; try again later");
+                }
+                return emitter;
+            }
+
+            Run run = new Run();
+            run.attach(emitter, maxSubscribers);
+            JobService.Submission submission;
+            try {
+                submission = jobService.submit("generate-newsletter-stream", JobService.PROCESSING_KEY, job -> generate(run, job));
+            } catch (IllegalStateException e) {
+                return rejected(emitter, e.getMessage());
+            }
+            if (submission.duplicate()) {
+                return rejected(emitter, "A newsletter generation job is already running: /api/jobs/" + submission.job().getId());
+            }
+            current = run;
+        }
+        return emitter;
+    }
+
+    private Object generate(Run run, Job job) {
+        try {
+            run.start(Thread.currentThread());
+            System.out.println("Streaming newsletter generation...");
+            job.setPhase("processing articles");
+            List<ProcessedArticle> processedArticles = contentProcessingService.processRecentArticles(processed -> {
+                job.incrementItemsProcessed();
+                run.broadcast("article", processed);
+            });
+
+            run.ensureWatched();
+            job.setPhase("selecting top articles");
+            List<ProcessedArticle> topArticles = contentProcessingService.selectTopArticles(processedArticles);
+            if (topArticles.isEmpty()) {
+                throw new IllegalStateException("No articles available for newsletter generation");
+            }
+            run.broadcast("top-articles", topArticles);
+
+            run.ensureWatched();
+            job.setPhase("writing newsletter");
+            String subject = contentProcessingService.generateNewsletterSubject(topArticles);
+            Map<String, Object> newsletter = new HashMap<>();
+            newsletter.put("subject", subject);
+            newsletter.put("newsletter", contentProcessingService.generateNewsletterPreview(topArticles, subject));
+            run.broadcast("newsletter", newsletter);
+
+            Map<String, Object> summary = message("Newsletter generated successfully with " + topArticles.size() + " articles");
+            summary.put("processedCount", processedArticles.size());
+            run.broadcast("complete", summary);
+            return summary;
+        } catch (RuntimeException e) {
+            System.err.println("Error streaming newsletter: " + e.getMessage());
+            run.broadcast("error", message("Error generating newsletter: " + e.getMessage()));
+            throw e;
+        } finally {
+            if (run.finish()) {
+                // Clear our own cancellation before the job worker moves on
+                Thread.interrupted();
+            }
+            synchronized (this) {
+                if (current == run) {
+                    current = null;
+                }
+            }
+        }
+    }
+
+    private SseEmitter rejected(SseEmitter emitter, String reason) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(message(reason)));
+        } catch (IOException | IllegalStateException e) {
+            // Client already gone
+        }
+        emitter.complete();
+        return emitter;
+    }
+
+    private static Map<String, Object> message(String text) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", text);
+        return body;
+    }
+
+    /** One generation run and the clients streaming it. */
+    private static final class Run {
+
+        private record Event(String name, Object data) { }
+
+        private final List<SseEmitter> subscribers = new ArrayList<>();
+        private final List<Event> history = new ArrayList<>();
+        private Thread runner;
+        private boolean cancelled;
+        private boolean finished;
+
+        /** Adds a client, replaying the events sent so far; false when the run is full. */
+        synchronized boolean attach(SseEmitter emitter, int maxSubscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                return false;
+            }
+            emitter.onCompletion(() -> detach(emitter));
+            emitter.onTimeout(() -> detach(emitter));
+            emitter.onError(error -> detach(emitter));
+            for (Event event : history) {
+                if (!send(emitter, event)) {
+                    return true;
+                }
+            }
+            if (finished) {
+                emitter.complete();
+            } else {
+                subscribers.add(emitter);
+            }
+            return true;
+        }
+
+        /**
+         * Removes a client. When it was the last one the generating thread is
+         * interrupted, which cancels its queued OpenAI tasks.
+         */
+        synchronized void detach(SseEmitter emitter) {
+            subscribers.remove(emitter);
+            if (subscribers.isEmpty() && runner != null && !cancelled) {
+                cancelled = true;
+                runner.interrupt();
+            }
+        }
+
+        synchronized void start(Thread thread) {
+            ensureWatched();
+            runner = thread;
+        }
+
+        /** Sends an event to every client still connected. */
+        synchronized void broadcast(String name, Object data) {
+            Event event = new Event(name, data);
+            history.add(event);
+            for (SseEmitter emitter : new ArrayList<>(subscribers)) {
+                if (!send(emitter, event)) {
+                    detach(emitter);
+                }
+            }
+        }
+
+        /** Stops the run once nobody is left to receive it. */
+        synchronized void ensureWatched() {
+            if (subscribers.isEmpty()) {
+                throw new CancellationException("All newsletter stream clients disconnected");
+            }
+        }
+
+        /** Completes the remaining clients; returns whether the run was cancelled. */
+        synchronized boolean finish() {
+            finished = true;
+            runner = null;
+            List<SseEmitter> remaining = new ArrayList<>(subscribers);
+            subscribers.clear();
+            remaining.forEach(SseEmitter::complete);
+            return cancelled;
+        }
+
+        private static boolean send(SseEmitter emitter, Event event) {
+            try {
+                emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -29,7 +29,7 @@ public class NewsletterTemplateService {
             html.append("<h2><a href='").append(article.getUrl()).append("' target='_blank'>")
                 .append(article.getTitle())
                 .append("</a></h2>");
-            html.append("<p>").append(truncate(article.getDescription(), 150)).append("</p>");
+            html.append("<p>").append(escapeHtml(article.getTeaser())).append("</p>");
             html.append("<p><em>Source: ").append(article.getSource())
                 .append(" | Published: ")
                 .append(article.getPublishedDate().format(formatter))
@@ -58,7 +58,7 @@ public class NewsletterTemplateService {
             html.append("<h2><a href='").append(article.getUrl()).append("' target='_blank'>")
                 .append(article.getTitle())
                 .append("</a></h2>");
-            html.append("<p>").append(truncate(article.getDescription(), 200)).append("</p>");
+            html.append("<p>").append(escapeHtml(article.getSnippet())).append("</p>");
             html.append("<p><em>Source: ").append(article.getSource())
                 .append(" | Published: ")
                 .append(article.getPublishedDate().format(formatter))
@@ -72,15 +72,15 @@ public class NewsletterTemplateService {
     }
 
     /**
-     * Helper to truncate text with ellipsis where needed
+     * Snippets are stored as plain text, so only escaping is needed here
      */
-    private String truncate(String text, int length) {
+    private String escapeHtml(String text) {
         if (text == null) {
             return "";
         }
-        if (text.length() <= length) {
-            return text;
-        }
-        return text.substring(0, length) + "...";
+        return text.replace("&", "&amp;")
+                   .replace("<", "&lt;")
+                   .replace(">", "&gt;")
+                   .replace("\"", "&quot;");
     }
 }
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.thecloudcode.cc.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs OpenAI work concurrently within the account's rate limits. Every chat
+ * completion takes one request and its estimated tokens from two token
+ * buckets (requests per minute and tokens per minute) before it is sent, so
+ * concurrency rises to whatever the budget allows and no further.
+ */
+@Service
+public class OpenAiExecutor {
+
+    @Value("${openai.rate.requests-per-minute:60}")
+    private int requestsPerMinute;
+
+    @Value("${openai.rate.tokens-per-minute:60000}")
+    private int tokensPerMinute;
+
+    @Value("${openai.executor.workers:8}")
+    private int workerCount;
+
+    private ThreadPoolExecutor executor;
+
+    private double requestTokens;
+    private double tokenTokens;
+    private long lastRefill;
+    // Set when OpenAI answers 429 with Retry-After; no permits are granted before it
+    private long pausedUntil;
+
+    private final AtomicLong permitsGranted = new AtomicLong();
+    private final AtomicLong tokensGranted = new AtomicLong();
+    private final AtomicLong waitMs = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        requestTokens = requestsPerMinute;
+        tokenTokens = tokensPerMinute;
+        lastRefill = System.currentTimeMillis();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            workerCount, workerCount, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "openai-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Applies {@code task} to every item on the OpenAI worker pool and returns
+     * the results in the order of {@code items}. Tasks are expected to handle
+     * their own failures and return a fallback value.
+     */
+    public <T, R> List<R> mapInOrder(List<T> items, Function<T, R> task) {
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(executor.submit(() -> task.apply(item)));
+        }
+
+        List<R> results = new ArrayList<>(items.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("OpenAI processing interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("OpenAI task failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Blocks until one request and {@code estimatedTokens} tokens are available
+     * in the per-minute budgets, then takes them.
+     */
+    public void acquire(int estimatedTokens) throws InterruptedException {
+        int tokens = Math.max(1, Math.min(estimatedTokens, tokensPerMinute));
+        long started = System.currentTimeMillis();
+        while (true) {
+            long sleepMs;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                double elapsedMinutes = (now - lastRefill) / 60000.0;
+                requestTokens = Math.min(requestsPerMinute, requestTokens + elapsedMinutes * requestsPerMinute);
+                tokenTokens = Math.min(tokensPerMinute, tokenTokens + elapsedMinutes * tokensPerMinute);
+                lastRefill = now;
+
+                if (now < pausedUntil) {
+                    sleepMs = pausedUntil - now;
+                } else if (requestTokens >= 1 && tokenTokens >= tokens) {
+                    requestTokens -= 1;
+                    tokenTokens -= tokens;
+                    permitsGranted.incrementAndGet();
+                    tokensGranted.addAndGet(tokens);
+                    waitMs.addAndGet(now - started);
+                    return;
+                } else {
+                    double requestWait = (1 - requestTokens) * 60000.0 / requestsPerMinute;
+                    double tokenWait = (tokens - tokenTokens) * 60000.0 / tokensPerMinute;
+                    sleepMs = (long) Math.ceil(Math.max(Math.max(requestWait, tokenWait), 1));
+                }
+            }
+            Thread.sleep(sleepMs);
+        }
+    }
+
+    /** Holds back every caller for {@code millis}, as a server-sent Retry-After asks. */
+    public synchronized void pauseFor(long millis) {
+        pausedUntil = Math.max(pausedUntil, System.currentTimeMillis() + millis);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("requestsPerMinute", requestsPerMinute);
+        stats.put("tokensPerMinute", tokensPerMinute);
+        stats.put("workers", workerCount);
+        stats.put("activeTasks", executor.getActiveCount());
+        stats.put("queuedTasks", executor.getQueue().size());
+        stats.put("requestsGranted", permitsGranted.get());
+        stats.put("tokensGranted", tokensGranted.get());
+        stats.put("totalWaitMs", waitMs.get());
+        stats.put("pausedForMs", Math.max(0, pausedUntil - System.currentTimeMillis()));
+        return stats;
+    }
+}
@@ -0,0 +1,312 @@
+package com.thecloudcode.cc.services;
+
+import com.theokanning.openai.OpenAiHttpException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import retrofit2.HttpException;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry and hedging around a single OpenAI call. Transient failures (429s,
+ * 5xx responses, timeouts and connection errors) are retried with full-jitter
+ * exponential backoff; a 429 that carries Retry-After waits at least that
+ * long, and pauses the shared rate budget so other workers wait too. When
+ * hedging is enabled, an attempt still running after the operation's recent
+ * latency percentile gets a second, parallel attempt and the first success
+ * wins.
+ */
+@Service
+public class OpenAiResilience {
+
+    /** One attempt of a call, run once its rate permit has been granted. */
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T run() throws InterruptedException;
+    }
+
+    @Autowired
+    private OpenAiUsageTracker usageTracker;
+
+    @Autowired
+    private OpenAiExecutor openAiExecutor;
+
+    @Value("${openai.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${openai.retry.base-delay-ms:500}")
+    private long baseDelayMs;
+
+    @Value("${openai.retry.max-delay-ms:20000}")
+    private long maxDelayMs;
+
+    // A Retry-After longer than this is not waited out; the call fails instead
+    @Value("${openai.retry.max-retry-after-ms:60000}")
+    private long maxRetryAfterMs;
+
+    @Value("${openai.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${openai.hedge.percentile:95}")
+    private double hedgePercentile;
+
+    // Recent successful calls an operation needs before its percentile is trusted
+    @Value("${openai.hedge.min-samples:20}")
+    private int hedgeMinSamples;
+
+    // Attempts run on virtual threads so a hedged call costs no pooled worker
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong retriedRateLimited = new AtomicLong();
+    private final AtomicLong retriedServerErrors = new AtomicLong();
+    private final AtomicLong retriedNetworkErrors = new AtomicLong();
+    private final AtomicLong retryAfterHonored = new AtomicLong();
+    private final AtomicLong backoffMs = new AtomicLong();
+    private final AtomicLong recoveredCalls = new AtomicLong();
+    private final AtomicLong exhaustedCalls = new AtomicLong();
+    private final AtomicLong nonRetryableFailures = new AtomicLong();
+    private final AtomicLong hedgesLaunched = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    @PreDestroy
+    void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * Runs {@code attempt} until it succeeds, hits a non-retryable error or
+     * uses up the attempt budget, in which case the last error is rethrown.
+     * Every attempt, hedges included, first takes a request and
+     * {@code permitTokens} tokens from the shared rate budget.
+     */
+    public <T> T call(String operation, int permitTokens, Attempt<T> attempt) throws InterruptedException {
+        calls.incrementAndGet();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                T result = runOnce(operation, permitTokens, attempt);
+                if (attemptNumber > 1) {
+                    recoveredCalls.incrementAndGet();
+                }
+                return result;
+            } catch (RuntimeException e) {
+                Long retryAfterMs = retryAfterMs(e);
+                if (!isRetryable(e) || (retryAfterMs != null && retryAfterMs > maxRetryAfterMs)) {
+                    nonRetryableFailures.incrementAndGet();
+                    throw e;
+                }
+                if (attemptNumber >= maxAttempts) {
+                    exhaustedCalls.incrementAndGet();
+                    throw e;
+                }
+
+                long delayMs = backoffDelay(attemptNumber);
+                if (retryAfterMs != null) {
+                    retryAfterHonored.incrementAndGet();
+                    delayMs = Math.max(delayMs, retryAfterMs);
+                    openAiExecutor.pauseFor(retryAfterMs);
+                }
+                countRetry(e);
+                backoffMs.addAndGet(delayMs);
+                System.err.println("OpenAI " + operation + " attempt " + attemptNumber + " failed (" + describe(e) + "), retrying in " + delayMs + "ms");
+                Thread.sleep(delayMs);
+            }
+        }
+    }
+
+    /** Full jitter: uniform between zero and the capped exponential delay. */
+    private long backoffDelay(int attemptNumber) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attemptNumber - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * The hedge clock starts only once the primary holds its permit: the
+     * latency percentile measures time on the wire, and time spent queueing
+     * for rate budget is no reason to spend a second permit.
+     */
+    private <T> T runOnce(String operation, int permitTokens, Attempt<T> attempt) throws InterruptedException {
+        attempts.incrementAndGet();
+        openAiExecutor.acquire(permitTokens);
+        long hedgeAfterMs = hedgeEnabled ? usageTracker.latencyPercentile(operation, hedgePercentile, hedgeMinSamples) : -1;
+        if (hedgeAfterMs < 0) {
+            return attempt.run();
+        }
+
+        CompletionService<T> race = new ExecutorCompletionService<>(hedgeExecutor);
+        Future<T> primary = race.submit(attempt::run);
+        Callable<T> hedgeTask = () -> {
+            openAiExecutor.acquire(permitTokens);
+            return attempt.run();
+        };
+        Future<T> hedge = null;
+        try {
+            Future<T> first = race.poll(hedgeAfterMs, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                hedgesLaunched.incrementAndGet();
+                attempts.incrementAndGet();
+                hedge = race.submit(hedgeTask);
+                first = race.take();
+            }
+            try {
+                T result = first.get();
+                if (first == hedge) {
+                    hedgeWins.incrementAndGet();
+                }
+                return result;
+            } catch (ExecutionException e) {
+                if (hedge == null) {
+                    throw unwrap(e);
+                }
+                // One attempt failed; the call stands or falls with the other
+                Future<T> second = race.take();
+                try {
+                    T result = second.get();
+                    if (second == hedge) {
+                        hedgeWins.incrementAndGet();
+                    }
+                    return result;
+                } catch (ExecutionException secondFailure) {
+                    throw unwrap(secondFailure);
+                }
+            }
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private RuntimeException unwrap(ExecutionException e) throws InterruptedException {
+        Throwable cause = e.getCause();
+        if (cause instanceof InterruptedException interrupted) {
+            throw interrupted;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private boolean isRetryable(RuntimeException e) {
+        int status = statusCode(e);
+        if (status == 429) {
+            // Quota exhaustion also answers 429 but no amount of waiting fixes it
+            return !(e instanceof OpenAiHttpException http && "insufficient_quota".equals(http.code));
+        }
+        if (status == 408 || status == 409 || status >= 500) {
+            return true;
+        }
+        return status < 0 && hasNetworkCause(e);
+    }
+
+    private void countRetry(RuntimeException e) {
+        retries.incrementAndGet();
+        int status = statusCode(e);
+        if (status == 429) {
+            retriedRateLimited.incrementAndGet();
+        } else if (status > 0) {
+            retriedServerErrors.incrementAndGet();
+        } else {
+            retriedNetworkErrors.incrementAndGet();
+        }
+    }
+
+    private static int statusCode(RuntimeException e) {
+        if (e instanceof OpenAiHttpException http) {
+            return http.statusCode;
+        }
+        if (e instanceof HttpException http) {
+            return http.code();
+        }
+        return -1;
+    }
+
+    /** Timeouts and connection failures surface as runtime wrappers around IOExceptions. */
+    private static boolean hasNetworkCause(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Server-requested wait from retry-after-ms or Retry-After (seconds or an
+     * HTTP date), or null when the response carries neither.
+     */
+    static Long retryAfterMs(RuntimeException e) {
+        HttpException http = null;
+        for (Throwable cause = e; cause != null && http == null; cause = cause.getCause()) {
+            if (cause instanceof HttpException candidate) {
+                http = candidate;
+            }
+        }
+        if (http == null || http.response() == null) {
+            return null;
+        }
+
+        String millis = http.response().headers().get("retry-after-ms");
+        String value = http.response().headers().get("Retry-After");
+        try {
+            if (millis != null) {
+                return Math.max(0, (long) Double.parseDouble(millis.trim()));
+            }
+            if (value == null) {
+                return null;
+            }
+            if (value.trim().matches("\\d+(\\.\\d+)?")) {
+                return (long) (Double.parseDouble(value.trim()) * 1000);
+            }
+            ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, at.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (RuntimeException unparseable) {
+            return null;
+        }
+    }
+
+    private static String describe(RuntimeException e) {
+        int status = statusCode(e);
+        return status > 0 ? "HTTP " + status : e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls.get());
+        stats.put("attempts", attempts.get());
+        stats.put("retries", retries.get());
+        stats.put("retriedRateLimited", retriedRateLimited.get());
+        stats.put("retriedServerErrors", retriedServerErrors.get());
+        stats.put("retriedNetworkErrors", retriedNetworkErrors.get());
+        stats.put("retryAfterHonored", retryAfterHonored.get());
+        stats.put("totalBackoffMs", backoffMs.get());
+        stats.put("recoveredCalls", recoveredCalls.get());
+        stats.put("exhaustedCalls", exhaustedCalls.get());
+        stats.put("nonRetryableFailures", nonRetryableFailures.get());
+        stats.put("hedgingEnabled", hedgeEnabled);
+        stats.put("hedgesLaunched", hedgesLaunched.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        return stats;
+    }
+}
@@ -1,115 +1,586 @@
 package com.thecloudcode.cc.services;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thecloudcode.cc.dto.ArticleEnrichment;
+import com.thecloudcode.cc.models.NewsArticle;
+import com.theokanning.openai.Usage;
 import com.theokanning.openai.completion.chat.ChatCompletionChoice;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.service.OpenAiService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class OpenAiServiceClient {
 
+    static final List<String> CATEGORIES = List.of(
+        "AI/ML", "Startups/Funding", "Consumer Tech", "Enterprise/Business",
+        "Security/Privacy", "Developer Tools", "Hardware"
+    );
+
+    private static final int MAX_SUMMARY_CHARS = 600;
+
+    // Bump when any enrichment prompt changes so cached results are not reused
+    private static final String PROMPT_VERSION = "v1";
+
+    private static final String SUMMARY_FALLBACK = "Summary unavailable - please check the original article.";
+    private static final int SCORE_FALLBACK = 5;
+    private static final String CATEGORY_FALLBACK = "General Tech";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
     @Autowired
     private OpenAiService openAiService;
 
-    public String summarizeArticle(String title, String content) {
+    @Autowired
+    private LocalCategoryClassifier categoryClassifier;
+
+    @Autowired
+    private PromptTokenizer tokenizer;
+
+    @Autowired
+    private OpenAiUsageTracker usageTracker;
+
+    @Autowired
+    private OpenAiResilience resilience;
+
+    // "combined" asks for summary, score and category in one JSON request; "separate" makes three calls;
+    // "batched" does the combined request for several articles at once
+    @Value("${openai.enrichment.mode:combined}")
+    private String enrichmentMode;
+
+    @Value("${openai.batch.size:10}")
+    private int batchSize;
+
+    // Prompt budgets, in tokens, for the article text included in each request type
+    @Value("${openai.tokens.combined-content:500}")
+    private int combinedContentTokens;
+
+    @Value("${openai.tokens.summary-content:500}")
+    private int summaryContentTokens;
+
+    @Value("${openai.tokens.score-content:250}")
+    private int scoreContentTokens;
+
+    @Value("${openai.tokens.category-content:200}")
+    private int categoryContentTokens;
+
+    @Value("${openai.tokens.batch-item-content:200}")
+    private int batchItemContentTokens;
+
+    private final AtomicLong batchRequests = new AtomicLong();
+    private final AtomicLong batchItems = new AtomicLong();
+    private final AtomicLong batchItemsRepaired = new AtomicLong();
+    private final AtomicLong batchRequestsFailed = new AtomicLong();
+
+    @Value("${openai.model:gpt-3.5-turbo}")
+    private String model;
+
+    /**
+     * Summarizes, scores and categorizes an article using the configured
+     * enrichment mode. Batched mode only batches across articles (see
+     * {@link #enrichBatch}), so a lone article gets the combined request.
+     */
+    public ArticleEnrichment enrichArticle(String title, String content) {
+        return enrichArticle(title, content, null);
+    }
+
+    /** As above; the source helps the local classifier decide the category. */
+    public ArticleEnrichment enrichArticle(String title, String content, String source) {
+        if ("separate".equalsIgnoreCase(enrichmentMode)) {
+            ArticleEnrichment enrichment = new ArticleEnrichment();
+            fillSummary(enrichment, title, content);
+            fillScore(enrichment, title, content);
+            fillCategory(enrichment, title, content, source);
+            return enrichment;
+        }
+        return enrichArticleCombined(title, content, source);
+    }
+
+    /** Identifies the prompts and model behind an enrichment, for caching results. */
+    public String getEnrichmentPromptVersion() {
+        return enrichmentMode.toLowerCase(Locale.ROOT) + "-" + PROMPT_VERSION;
+    }
+
+    public boolean isBatchedMode() {
+        return "batched".equalsIgnoreCase(enrichmentMode);
+    }
+
+    public int getBatchSize() {
+        return Math.max(1, batchSize);
+    }
+
+    /**
+     * Summarizes, scores and categorizes several articles in one request, so
+     * a chunk of N articles costs one request instead of N combined ones. The
+     * reply is a JSON array keyed by article index. An item that is missing or
+     * has an invalid field gets only that field re-requested; when the request
+     * itself fails, every item gets the degraded defaults without further
+     * calls. Results come back in the order of {@code articles}.
+     */
+    public List<ArticleEnrichment> enrichBatch(List<NewsArticle> articles) {
+        Map<Integer, JsonNode> items;
         try {
+            StringBuilder list = new StringBuilder();
+            for (int i = 0; i < articles.size(); i++) {
+                NewsArticle article = articles.get(i);
+                String content = tokenizer.truncate(article.getDescription(), batchItemContentTokens);
+                list.append("[").append(i).append("] Title: ").append(article.getTitle())
+                    .append("\nContent: ").append(content).append("\n\n");
+            }
+
             String prompt = String.format(
-                "Summarize this tech article in exactly 2-3 clear sentences for a daily tech newsletter. " +
-                "Focus on the key innovation, business impact, and why tech professionals should care. " +
-                "Keep it concise and engaging.\n\nTitle: %s\n\nContent: %s",
-                title,
-                content.length() > 2000 ? content.substring(0, 2000) + "..." : content
+                "For each numbered tech article below, write a 2-3 sentence summary for a daily tech newsletter " +
+                "(key innovation, business impact, why tech professionals should care), rate its importance for the " +
+                "newsletter audience on a scale of 1-10 (innovation level, business impact, audience interest, " +
+                "timeliness) and pick exactly one category from: %s.\n" +
+                "Respond with ONLY a JSON array, no markdown, with one object per article in this shape:\n" +
+                "[{\"index\": 0, \"summary\": \"...\", \"score\": 7, \"category\": \"AI/ML\"}]\n\n%s",
+                String.join(", ", CATEGORIES),
+                list
             );
 
             ChatCompletionRequest request = ChatCompletionRequest.builder()
-                .model("gpt-3.5-turbo")
-                .messages(List.of(new ChatMessage("user", prompt)))
-                .maxTokens(120)
-                .temperature(0.3)
+                .model(model)
+                .messages(List.of(
+                    new ChatMessage("system", "You are a precise assistant that replies with valid JSON only."),
+                    new ChatMessage("user", prompt)))
+                .maxTokens(20 + 130 * articles.size())
+                .temperature(0.2)
                 .build();
 
-            List<ChatCompletionChoice> choices = openAiService.createChatCompletion(request).getChoices();
-            return choices.stream()
-                .map(ChatCompletionChoice::getMessage)
-                .map(ChatMessage::getContent)
-                .collect(Collectors.joining())
-                .trim();
-                
+            batchRequests.incrementAndGet();
+            batchItems.addAndGet(articles.size());
+            items = parseIndexedItems(complete("batch-enrich", request), articles.size());
         } catch (Exception e) {
-            System.err.println("Error summarizing article: " + e.getMessage());
-            return "Summary unavailable - please check the original article.";
+            restoreInterrupt(e);
+            batchRequestsFailed.incrementAndGet();
+            System.err.println("Error enriching article batch: " + e.getMessage());
+            List<ArticleEnrichment> fallbacks = new ArrayList<>(articles.size());
+            for (NewsArticle article : articles) {
+                fallbacks.add(fallbackEnrichment(article.getTitle(), article.getDescription(), article.getSource()));
+            }
+            return fallbacks;
+        }
+
+        List<ArticleEnrichment> results = new ArrayList<>(articles.size());
+        for (int i = 0; i < articles.size(); i++) {
+            NewsArticle article = articles.get(i);
+            String content = article.getDescription() != null ? article.getDescription() : "";
+            JsonNode item = items.get(i);
+            String summary = validSummary(item);
+            Integer score = validScore(item);
+            String category = validCategory(item);
+            if (summary == null || score == null || category == null) {
+                batchItemsRepaired.incrementAndGet();
+            }
+
+            ArticleEnrichment enrichment = new ArticleEnrichment();
+            if (summary != null) {
+                enrichment.setSummary(summary);
+            } else {
+                fillSummary(enrichment, article.getTitle(), content);
+            }
+            if (score != null) {
+                enrichment.setRelevanceScore(score);
+            } else {
+                fillScore(enrichment, article.getTitle(), content);
+            }
+            if (category != null) {
+                enrichment.setCategory(category);
+                enrichment.setCategorySource(NewsArticle.CATEGORY_SOURCE_LLM);
+            } else {
+                fillCategory(enrichment, article.getTitle(), content, article.getSource());
+            }
+            results.add(enrichment);
         }
+        return results;
     }
 
-    public int scoreArticleRelevance(String title, String content) {
+    /** Maps each well-formed array element to its index; duplicates keep the first. */
+    static Map<Integer, JsonNode> parseIndexedItems(String response, int expected) {
+        Map<Integer, JsonNode> items = new HashMap<>();
+        int start = response.indexOf('[');
+        int end = response.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            return items;
+        }
+        try {
+            JsonNode array = JSON.readTree(response.substring(start, end + 1));
+            for (JsonNode item : array) {
+                if (item.isObject() && item.path("index").isIntegralNumber()) {
+                    int index = item.get("index").asInt();
+                    if (index >= 0 && index < expected) {
+                        items.putIfAbsent(index, item);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Malformed reply; every item is repaired with single-field requests
+        }
+        return items;
+    }
+
+    public Map<String, Object> getBatchStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("requests", batchRequests.get());
+        stats.put("items", batchItems.get());
+        stats.put("failedRequests", batchRequestsFailed.get());
+        stats.put("itemsRepairedIndividually", batchItemsRepaired.get());
+        return stats;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * One request returning strict JSON. Each field is validated on its own;
+     * a missing or malformed field is re-requested with its single-purpose
+     * prompt, so one bad value does not discard the others. When the request
+     * itself fails no further calls are made: the result gets the defaults
+     * (or a confident local category) and is marked degraded.
+     */
+    private ArticleEnrichment enrichArticleCombined(String title, String content, String source) {
+        JsonNode json;
         try {
             String prompt = String.format(
-                "Rate this tech article's importance for a daily tech newsletter audience on a scale of 1-10. " +
-                "Consider: innovation level, business impact, audience interest, and timeliness. " +
-                "Respond with ONLY a single number from 1-10, nothing else.\n\nTitle: %s\n\nContent: %s",
+                "Analyze this tech article for a daily tech newsletter and respond with ONLY a JSON object, " +
+                "no markdown, in exactly this shape:\n" +
+                "{\"summary\": \"2-3 clear sentences on the key innovation, business impact and why tech professionals should care\", " +
+                "\"score\": <integer 1-10 rating importance for the newsletter audience by innovation, impact, interest and timeliness>, " +
+                "\"category\": \"<exactly one of: %s>\"}\n\nTitle: %s\n\nContent: %s",
+                String.join(", ", CATEGORIES),
                 title,
-                content.length() > 1000 ? content.substring(0, 1000) + "..." : content
+                tokenizer.truncate(content, combinedContentTokens)
             );
 
             ChatCompletionRequest request = ChatCompletionRequest.builder()
-                .model("gpt-3.5-turbo")
-                .messages(List.of(new ChatMessage("user", prompt)))
-                .maxTokens(10)
-                .temperature(0.1)
+                .model(model)
+                .messages(List.of(
+                    new ChatMessage("system", "You are a precise assistant that replies with a single valid JSON object."),
+                    new ChatMessage("user", prompt)))
+                .maxTokens(200)
+                .temperature(0.2)
                 .build();
 
-            List<ChatCompletionChoice> choices = openAiService.createChatCompletion(request).getChoices();
-            String response = choices.stream()
-                .map(ChatCompletionChoice::getMessage)
-                .map(ChatMessage::getContent)
-                .collect(Collectors.joining())
-                .trim();
+            String response = complete("enrich-combined", request);
+            json = parseJsonObject(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallbackEnrichment(title, content, source);
+        } catch (Exception e) {
+            System.err.println("Error enriching article: " + e.getMessage());
+            return fallbackEnrichment(title, content, source);
+        }
 
-            String digit = response.replaceAll("[^0-9]", "");
-            if (!digit.isEmpty()) {
-                int score = Integer.parseInt(digit.substring(0, 1));
-                return Math.max(1, Math.min(10, score));
-            }
+        ArticleEnrichment enrichment = new ArticleEnrichment();
+        String summary = validSummary(json);
+        if (summary != null) {
+            enrichment.setSummary(summary);
+        } else {
+            fillSummary(enrichment, title, content);
+        }
+        Integer score = validScore(json);
+        if (score != null) {
+            enrichment.setRelevanceScore(score);
+        } else {
+            fillScore(enrichment, title, content);
+        }
+        String category = validCategory(json);
+        if (category != null) {
+            enrichment.setCategory(category);
+            enrichment.setCategorySource(NewsArticle.CATEGORY_SOURCE_LLM);
+        } else {
+            fillCategory(enrichment, title, content, source);
+        }
+        return enrichment;
+    }
+
+    /** Degraded result built without any OpenAI call, for when the API is failing. */
+    private ArticleEnrichment fallbackEnrichment(String title, String content, String source) {
+        ArticleEnrichment enrichment = new ArticleEnrichment(SUMMARY_FALLBACK, SCORE_FALLBACK, CATEGORY_FALLBACK);
+        enrichment.setDegraded(true);
+        LocalCategoryClassifier.Prediction prediction = categoryClassifier.classify(title, content, source);
+        if (prediction.confident()) {
+            categoryClassifier.recordAvoidedCall();
+            enrichment.setCategory(prediction.category());
+            enrichment.setCategorySource(NewsArticle.CATEGORY_SOURCE_LOCAL);
+        }
+        return enrichment;
+    }
+
+    // Single-field requests; a failure stores the field's default and marks the result degraded
+
+    private void fillSummary(ArticleEnrichment enrichment, String title, String content) {
+        try {
+            enrichment.setSummary(requestSummary(title, content));
         } catch (Exception e) {
+            restoreInterrupt(e);
+            System.err.println("Error summarizing article: " + e.getMessage());
+            enrichment.setSummary(SUMMARY_FALLBACK);
+            enrichment.setDegraded(true);
+        }
+    }
+
+    private void fillScore(ArticleEnrichment enrichment, String title, String content) {
+        Integer score = null;
+        try {
+            score = requestScore(title, content);
+        } catch (Exception e) {
+            restoreInterrupt(e);
             System.err.println("Error scoring article relevance: " + e.getMessage());
         }
-        return 5;
+        enrichment.setRelevanceScore(score != null ? score : SCORE_FALLBACK);
+        if (score == null) {
+            enrichment.setDegraded(true);
+        }
     }
 
-    public String categorizeArticle(String title, String content) {
+    /** Uses the local classifier when it is confident and only asks OpenAI otherwise. */
+    private void fillCategory(ArticleEnrichment enrichment, String title, String content, String source) {
+        LocalCategoryClassifier.Prediction prediction = categoryClassifier.classify(title, content, source);
+        if (prediction.confident()) {
+            categoryClassifier.recordAvoidedCall();
+            enrichment.setCategory(prediction.category());
+            enrichment.setCategorySource(NewsArticle.CATEGORY_SOURCE_LOCAL);
+            return;
+        }
+        String category = null;
         try {
-            String prompt = String.format(
-                "Categorize this tech article into ONE of these exact categories: " +
-                "AI/ML, Startups/Funding, Consumer Tech, Enterprise/Business, Security/Privacy, Developer Tools, Hardware. " +
-                "Respond with ONLY the category name, nothing else.\n\nTitle: %s\n\nContent: %s",
-                title,
-                content.length() > 800 ? content.substring(0, 800) + "..." : content
-            );
+            category = requestCategory(title, content);
+        } catch (Exception e) {
+            restoreInterrupt(e);
+            System.err.println("Error categorizing article: " + e.getMessage());
+        }
+        if (category != null) {
+            enrichment.setCategory(category);
+            enrichment.setCategorySource(NewsArticle.CATEGORY_SOURCE_LLM);
+            return;
+        }
+        // No usable answer: take the classifier's best guess, but do not let it be cached
+        if (prediction.category() != null) {
+            enrichment.setCategory(prediction.category());
+            enrichment.setCategorySource(NewsArticle.CATEGORY_SOURCE_LOCAL);
+        } else {
+            enrichment.setCategory(CATEGORY_FALLBACK);
+        }
+        enrichment.setDegraded(true);
+    }
 
-            ChatCompletionRequest request = ChatCompletionRequest.builder()
-                .model("gpt-3.5-turbo")
-                .messages(List.of(new ChatMessage("user", prompt)))
-                .maxTokens(20)
-                .temperature(0.1)
-                .build();
+    /**
+     * Re-asserts a cancellation swallowed by a fallback handler, so the
+     * remaining requests of the task fail fast in {@link #complete}.
+     */
+    private static void restoreInterrupt(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            List<ChatCompletionChoice> choices = openAiService.createChatCompletion(request).getChoices();
-            return choices.stream()
-                .map(ChatCompletionChoice::getMessage)
-                .map(ChatMessage::getContent)
-                .collect(Collectors.joining())
-                .trim();
-                
+    /** Reads the outermost JSON object, tolerating code fences or text around it. */
+    static JsonNode parseJsonObject(String response) {
+        int start = response.indexOf('{');
+        int end = response.lastIndexOf('}');
+        if (start < 0 || end <= start) {
+            return null;
+        }
+        try {
+            JsonNode node = JSON.readTree(response.substring(start, end + 1));
+            return node.isObject() ? node : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static String validSummary(JsonNode json) {
+        if (json == null || !json.path("summary").isTextual()) {
+            return null;
+        }
+        String summary = json.get("summary").asText().trim();
+        if (summary.isEmpty()) {
+            return null;
+        }
+        return summary.length() > MAX_SUMMARY_CHARS ? summary.substring(0, MAX_SUMMARY_CHARS - 3) + "..." : summary;
+    }
+
+    static Integer validScore(JsonNode json) {
+        if (json == null) {
+            return null;
+        }
+        JsonNode node = json.path("score");
+        int score;
+        if (node.isIntegralNumber()) {
+            score = node.asInt();
+        } else if (node.isTextual() && node.asText().trim().matches("\\d{1,2}")) {
+            score = Integer.parseInt(node.asText().trim());
+        } else {
+            return null;
+        }
+        return score >= 1 && score <= 10 ? score : null;
+    }
+
+    static String validCategory(JsonNode json) {
+        if (json == null || !json.path("category").isTextual()) {
+            return null;
+        }
+        return matchCategory(json.get("category").asText());
+    }
+
+    /**
+     * Maps a model reply onto one of the fixed categories, case-insensitively.
+     * Replies that wrap the name, like "Category: AI/ML.", match when exactly
+     * one category name appears in them; anything else is null.
+     */
+    static String matchCategory(String reply) {
+        if (reply == null) {
+            return null;
+        }
+        String text = reply.trim();
+        String contained = null;
+        for (String known : CATEGORIES) {
+            if (known.equalsIgnoreCase(text)) {
+                return known;
+            }
+            if (text.toLowerCase(Locale.ROOT).contains(known.toLowerCase(Locale.ROOT))) {
+                if (contained != null) {
+                    return null;
+                }
+                contained = known;
+            }
+        }
+        return contained;
+    }
+
+    public String summarizeArticle(String title, String content) {
+        try {
+            return requestSummary(title, content);
+        } catch (Exception e) {
+            restoreInterrupt(e);
+            System.err.println("Error summarizing article: " + e.getMessage());
+            return SUMMARY_FALLBACK;
+        }
+    }
+
+    private String requestSummary(String title, String content) throws Exception {
+        String prompt = String.format(
+            "Summarize this tech article in exactly 2-3 clear sentences for a daily tech newsletter. " +
+            "Focus on the key innovation, business impact, and why tech professionals should care. " +
+            "Keep it concise and engaging.\n\nTitle: %s\n\nContent: %s",
+            title,
+            tokenizer.truncate(content, summaryContentTokens)
+        );
+
+        ChatCompletionRequest request = ChatCompletionRequest.builder()
+            .model(model)
+            .messages(List.of(new ChatMessage("user", prompt)))
+            .maxTokens(120)
+            .temperature(0.3)
+            .build();
+
+        return complete("summary", request);
+    }
+
+    public int scoreArticleRelevance(String title, String content) {
+        try {
+            Integer score = requestScore(title, content);
+            if (score != null) {
+                return score;
+            }
+        } catch (Exception e) {
+            restoreInterrupt(e);
+            System.err.println("Error scoring article relevance: " + e.getMessage());
+        }
+        return SCORE_FALLBACK;
+    }
+
+    /** Returns null when the reply contains no number. */
+    private Integer requestScore(String title, String content) throws Exception {
+        String prompt = String.format(
+            "Rate this tech article's importance for a daily tech newsletter audience on a scale of 1-10. " +
+            "Consider: innovation level, business impact, audience interest, and timeliness. " +
+            "Respond with ONLY a single number from 1-10, nothing else.\n\nTitle: %s\n\nContent: %s",
+            title,
+            tokenizer.truncate(content, scoreContentTokens)
+        );
+
+        ChatCompletionRequest request = ChatCompletionRequest.builder()
+            .model(model)
+            .messages(List.of(new ChatMessage("user", prompt)))
+            .maxTokens(10)
+            .temperature(0.1)
+            .build();
+
+        String response = complete("score", request);
+
+        return parseScore(response);
+    }
+
+    /** First whole number in a score reply, clamped to 1-10; null when there is none. */
+    static Integer parseScore(String response) {
+        Matcher number = NUMBER.matcher(response);
+        if (!number.find()) {
+            return null;
+        }
+        String digits = number.group().replaceFirst("^0+(?=\\d)", "");
+        // Anything this long is far outside the scale anyway
+        int score = digits.length() > 2 ? 10 : Integer.parseInt(digits);
+        return Math.max(1, Math.min(10, score));
+    }
+
+    public String categorizeArticle(String title, String content) {
+        LocalCategoryClassifier.Prediction prediction = categoryClassifier.classify(title, content, null);
+        if (prediction.confident()) {
+            categoryClassifier.recordAvoidedCall();
+            return prediction.category();
+        }
+        try {
+            String category = requestCategory(title, content);
+            if (category != null) {
+                return category;
+            }
         } catch (Exception e) {
+            restoreInterrupt(e);
             System.err.println("Error categorizing article: " + e.getMessage());
-            return "General Tech";
         }
+        return prediction.category() != null ? prediction.category() : CATEGORY_FALLBACK;
+    }
+
+    /** Returns null when the reply names none of the fixed categories. */
+    private String requestCategory(String title, String content) throws Exception {
+        String prompt = String.format(
+            "Categorize this tech article into ONE of these exact categories: " +
+            "AI/ML, Startups/Funding, Consumer Tech, Enterprise/Business, Security/Privacy, Developer Tools, Hardware. " +
+            "Respond with ONLY the category name, nothing else.\n\nTitle: %s\n\nContent: %s",
+            title,
+            tokenizer.truncate(content, categoryContentTokens)
+        );
+
+        ChatCompletionRequest request = ChatCompletionRequest.builder()
+            .model(model)
+            .messages(List.of(new ChatMessage("user", prompt)))
+            .maxTokens(20)
+            .temperature(0.1)
+            .build();
+
+        return matchCategory(complete("category", request));
     }
 
     public String generateNewsletterSubject(List<String> topArticleTitles) {
@@ -121,22 +592,65 @@ public class OpenAiServiceClient {
             );
 
             ChatCompletionRequest request = ChatCompletionRequest.builder()
-                .model("gpt-3.5-turbo")
+                .model(model)
                 .messages(List.of(new ChatMessage("user", prompt)))
                 .maxTokens(30)
                 .temperature(0.5)
                 .build();
 
-            List<ChatCompletionChoice> choices = openAiService.createChatCompletion(request).getChoices();
-            return choices.stream()
-                .map(ChatCompletionChoice::getMessage)
-                .map(ChatMessage::getContent)
-                .collect(Collectors.joining())
-                .trim();
+            return complete("subject", request);
                 
         } catch (Exception e) {
+            restoreInterrupt(e);
             System.err.println("Error generating subject line: " + e.getMessage());
             return "Daily Tech Updates";
         }
     }
+
+    /**
+     * Sends a chat completion through the retry policy and returns the joined
+     * message text. The policy takes rate budget for every attempt; each
+     * attempt is recorded separately.
+     */
+    private String complete(String operation, ChatCompletionRequest request) throws InterruptedException {
+        // A cancelled task must not start new requests, even while rate budget is available
+        if (Thread.interrupted()) {
+            throw new InterruptedException("OpenAI " + operation + " request cancelled");
+        }
+        int promptTokens = countPromptTokens(request);
+        int maxCompletion = request.getMaxTokens() != null ? request.getMaxTokens() : 256;
+        return resilience.call(operation, promptTokens + maxCompletion, () -> attempt(operation, request, promptTokens));
+    }
+
+    private String attempt(String operation, ChatCompletionRequest request, int promptTokens) {
+        long start = System.currentTimeMillis();
+        try {
+            ChatCompletionResult result = openAiService.createChatCompletion(request);
+            String text = result.getChoices().stream()
+                .map(ChatCompletionChoice::getMessage)
+                .map(ChatMessage::getContent)
+                .collect(Collectors.joining())
+                .trim();
+
+            Usage usage = result.getUsage();
+            usageTracker.record(operation,
+                usage != null ? (int) usage.getPromptTokens() : promptTokens,
+                usage != null ? (int) usage.getCompletionTokens() : tokenizer.countTokens(text),
+                System.currentTimeMillis() - start,
+                OpenAiUsageTracker.Outcome.SUCCESS);
+            return text;
+        } catch (RuntimeException e) {
+            usageTracker.record(operation, promptTokens, 0, System.currentTimeMillis() - start, OpenAiUsageTracker.Outcome.FAILURE);
+            throw e;
+        }
+    }
+
+    /** Message tokens plus the few tokens of per-message framing the chat format adds. */
+    private int countPromptTokens(ChatCompletionRequest request) {
+        int tokens = 3;
+        for (ChatMessage message : request.getMessages()) {
+            tokens += 4 + tokenizer.countTokens(message.getContent());
+        }
+        return tokens;
+    }
 }
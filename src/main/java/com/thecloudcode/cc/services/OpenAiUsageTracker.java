@@ -0,0 +1,130 @@
+package com.thecloudcode.cc.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-operation accounting of OpenAI calls: outcome counts, prompt and
+ * completion tokens, estimated cost and latency (mean, max and percentiles
+ * over a window of recent calls).
+ */
+@Service
+public class OpenAiUsageTracker {
+
+    public enum Outcome { SUCCESS, FAILURE }
+
+    private static final int LATENCY_WINDOW = 512;
+
+    @Value("${openai.pricing.prompt-per-1k-tokens:0.0005}")
+    private double promptPricePer1k;
+
+    @Value("${openai.pricing.completion-per-1k-tokens:0.0015}")
+    private double completionPricePer1k;
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    public void record(String operation, int promptTokens, int completionTokens, long latencyMs, Outcome outcome) {
+        operations.computeIfAbsent(operation, key -> new OperationStats())
+            .record(promptTokens, completionTokens, latencyMs, outcome);
+    }
+
+    /**
+     * Latency percentile (0-100) over recent successful calls of an operation,
+     * or -1 when there are not enough samples yet.
+     */
+    public long latencyPercentile(String operation, double percentile, int minSamples) {
+        OperationStats stats = operations.get(operation);
+        return stats == null ? -1 : stats.percentile(percentile, minSamples);
+    }
+
+    public Map<String, Object> getUsage() {
+        Map<String, Object> view = new TreeMap<>();
+        long calls = 0;
+        long promptTokens = 0;
+        long completionTokens = 0;
+        for (Map.Entry<String, OperationStats> entry : operations.entrySet()) {
+            OperationStats stats = entry.getValue();
+            synchronized (stats) {
+                Map<String, Object> op = new LinkedHashMap<>();
+                op.put("calls", stats.calls);
+                op.put("successes", stats.successes);
+                op.put("failures", stats.failures);
+                op.put("promptTokens", stats.promptTokens);
+                op.put("completionTokens", stats.completionTokens);
+                op.put("avgPromptTokens", stats.calls == 0 ? 0 : stats.promptTokens / stats.calls);
+                op.put("avgCompletionTokens", stats.calls == 0 ? 0 : stats.completionTokens / stats.calls);
+                op.put("estimatedCostUsd", cost(stats.promptTokens, stats.completionTokens));
+                op.put("avgLatencyMs", stats.calls == 0 ? 0 : stats.totalLatencyMs / stats.calls);
+                op.put("maxLatencyMs", stats.maxLatencyMs);
+                op.put("p50LatencyMs", stats.percentile(50, 1));
+                op.put("p95LatencyMs", stats.percentile(95, 1));
+                view.put(entry.getKey(), op);
+                calls += stats.calls;
+                promptTokens += stats.promptTokens;
+                completionTokens += stats.completionTokens;
+            }
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("calls", calls);
+        totals.put("promptTokens", promptTokens);
+        totals.put("completionTokens", completionTokens);
+        totals.put("estimatedCostUsd", cost(promptTokens, completionTokens));
+
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("totals", totals);
+        usage.put("operations", view);
+        return usage;
+    }
+
+    private double cost(long promptTokens, long completionTokens) {
+        double usd = promptTokens / 1000.0 * promptPricePer1k + completionTokens / 1000.0 * completionPricePer1k;
+        return Math.round(usd * 1_000_000) / 1_000_000.0;
+    }
+
+    private static final class OperationStats {
+        private long calls;
+        private long successes;
+        private long failures;
+        private long promptTokens;
+        private long completionTokens;
+        private long totalLatencyMs;
+        private long maxLatencyMs;
+        // Ring buffer of recent successful call latencies
+        private final long[] recentLatencies = new long[LATENCY_WINDOW];
+        private int recentCount;
+        private int recentNext;
+
+        private synchronized void record(int prompt, int completion, long latencyMs, Outcome outcome) {
+            calls++;
+            promptTokens += prompt;
+            completionTokens += completion;
+            totalLatencyMs += latencyMs;
+            maxLatencyMs = Math.max(maxLatencyMs, latencyMs);
+            if (outcome == Outcome.SUCCESS) {
+                successes++;
+                recentLatencies[recentNext] = latencyMs;
+                recentNext = (recentNext + 1) % LATENCY_WINDOW;
+                recentCount = Math.min(recentCount + 1, LATENCY_WINDOW);
+            } else {
+                failures++;
+            }
+        }
+
+        private synchronized long percentile(double percentile, int minSamples) {
+            if (recentCount == 0 || recentCount < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(recentLatencies, recentCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * recentCount) - 1;
+            return sorted[Math.max(0, Math.min(recentCount - 1, index))];
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.thecloudcode.cc.services;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Counts and trims prompt text in model tokens rather than characters, using
+ * the tokenizer of the configured OpenAI model.
+ */
+@Component
+public class PromptTokenizer {
+
+    @Value("${openai.model:gpt-3.5-turbo}")
+    private String model;
+
+    private Encoding encoding;
+
+    @PostConstruct
+    void init() {
+        // The default registry parses every encoding's rank file up front; only one is used
+        EncodingRegistry registry = Encodings.newLazyEncodingRegistry();
+        encoding = registry.getEncodingForModel(model)
+            .orElseGet(() -> registry.getEncoding(EncodingType.CL100K_BASE));
+    }
+
+    public int countTokens(String text) {
+        return text == null || text.isEmpty() ? 0 : encoding.countTokensOrdinary(text);
+    }
+
+    /** Cuts {@code text} to at most {@code maxTokens} tokens, marking the cut with "...". */
+    public String truncate(String text, int maxTokens) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        EncodingResult result = encoding.encodeOrdinary(text, maxTokens);
+        if (!result.isTruncated()) {
+            return text;
+        }
+        return encoding.decode(result.getTokens()).trim() + "...";
+    }
+}
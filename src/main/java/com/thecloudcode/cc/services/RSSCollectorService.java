@@ -5,122 +5,383 @@ import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.feed.synd.SyndEnclosure;
 import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
+import com.thecloudcode.cc.dto.CollectionReport;
+import com.thecloudcode.cc.dto.FeedEntry;
+import com.thecloudcode.cc.dto.FeedFetchResponse;
+import com.thecloudcode.cc.dto.SourceCollectionResult;
+import com.thecloudcode.cc.models.FeedSource;
+import com.thecloudcode.cc.models.FeedWatermark;
 import com.thecloudcode.cc.models.NewsArticle;
-import com.thecloudcode.cc.repository.NewsArticleRepository;
+import com.thecloudcode.cc.repository.FeedWatermarkRepository;
+import com.thecloudcode.cc.util.UrlCanonicalizer;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.net.URL;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+/**
+ * Feed ingest. Fetching, parsing and de-duplication run outside any
+ * transaction; new articles are then written by {@link ArticlePersistenceService}
+ * in short per-batch transactions.
+ */
 @Service
-@Transactional
 public class RSSCollectorService {
 
     @Autowired
-    private NewsArticleRepository articleRepository;
+    private FeedHttpClient feedHttpClient;
+
+    @Autowired
+    private ArticleDeduplicationService deduplicationService;
+
+    @Autowired
+    private ImageEnrichmentService imageEnrichmentService;
+
+    @Autowired
+    private IngestEnrichmentService ingestEnrichmentService;
+
+    @Autowired
+    private ArticleEmbeddingStore embeddingStore;
+
+    @Autowired
+    private FeedSourceService feedSourceService;
+
+    @Autowired
+    private StaxFeedParser staxFeedParser;
+
+    @Autowired
+    private NearDuplicateDetector nearDuplicateDetector;
+
+    @Autowired
+    private ArticlePersistenceService articlePersistenceService;
+
+    @Autowired
+    private ArticleNormalizationService normalizationService;
+
+    @Autowired
+    private FeedWatermarkRepository watermarkRepository;
+
+    private static final Duration WATERMARK_CLOCK_SKEW = Duration.ofMinutes(10);
+
+    @Value("${rss.collect.deadline-seconds:90}")
+    private long collectDeadlineSeconds;
+
+    // Time given to interrupted collections to wind down before outcomes are recorded
+    @Value("${rss.collect.shutdown-grace-seconds:10}")
+    private long shutdownGraceSeconds;
+
+    // Sources with a collection still running, possibly left over from a run that timed out
+    private final Set<Long> activeSources = ConcurrentHashMap.newKeySet();
+
+    @Value("${rss.parser.mode:rome}")
+    private String parserMode;
+
+    @Value("${rss.persist.batch-size:50}")
+    private int persistBatchSize;
+
+    @Value("${rss.bulk.batch-size:500}")
+    private int bulkBatchSize;
 
     public List<NewsArticle> fetchArticlesFromRSS(String rssUrl, String sourceName) {
+        try {
+            return collectFeed(rssUrl, sourceName, new SourceCollectionResult(sourceName, rssUrl));
+        } catch (Exception e) {
+            System.err.println("Error fetching RSS from " + sourceName + ": " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Fetches, de-duplicates and saves one feed, letting failures propagate
+     * so the caller can record them.
+     */
+    private List<NewsArticle> collectFeed(String rssUrl, String sourceName, SourceCollectionResult result) throws Exception {
         List<NewsArticle> newArticles = new ArrayList<>();
+
+        System.out.println("Fetching from " + sourceName + ": " + rssUrl);
+
+        FeedFetchResponse response = feedHttpClient.fetch(rssUrl);
+        result.setBytesRead(response.getBytesRead());
+        if (response.isNotModified()) {
+            result.setNotModified(true);
+            System.out.println(sourceName + " feed not modified since last poll");
+            return newArticles;
+        }
         
-        try {
-            System.out.println("Fetching from " + sourceName + ": " + rssUrl);
+        FeedWatermark watermark = articlePersistenceService.watermarkFor(rssUrl);
+        if (watermark.getLatestPublishedAt() != null && watermark.getLatestPublishedAt().isAfter(latestTrustedDate())) {
+            // Set from a future-dated entry before such entries were ignored; it would hide every new entry
+            watermark.setLatestPublishedAt(null);
+            watermark.setLatestGuid(null);
+        }
+
+        List<FeedEntry> parsed = parseEntries(response, watermark);
+        List<FeedEntry> entries = entriesAboveWatermark(parsed, watermark);
+        result.setEntriesSkipped(parsed.size() - entries.size());
+        newArticles = ingestEntries(entries, sourceName, result, watermark);
+
+        feedHttpClient.recordValidators(response);
+
+        return newArticles;
+    }
+
+    /**
+     * Feeds list their newest entries first, so everything from the first entry
+     * at or below the watermark onwards has already been ingested. Undated
+     * entries cannot be placed and are left to URL de-duplication.
+     */
+    private List<FeedEntry> entriesAboveWatermark(List<FeedEntry> entries, FeedWatermark watermark) {
+        if (watermark.getLatestPublishedAt() == null) {
+            return entries;
+        }
+        Instant mark = watermark.getLatestPublishedAt().atZone(ZoneId.systemDefault()).toInstant();
+        for (int i = 0; i < entries.size(); i++) {
+            FeedEntry entry = entries.get(i);
+            Instant published = entry.getPublishedDate();
+            if (published == null) {
+                continue;
+            }
+            if (published.isBefore(mark)
+                    || (published.equals(mark) && entryKey(entry) != null && entryKey(entry).equals(watermark.getLatestGuid()))) {
+                return entries.subList(0, i);
+            }
+        }
+        return entries;
+    }
+
+    private String entryKey(FeedEntry entry) {
+        return entry.getGuid() != null ? entry.getGuid() : entry.getLink();
+    }
+
+    /**
+     * De-duplicates parsed entries against stored articles, builds the new
+     * ones and saves them in batches. When a watermark is given it is moved to
+     * the newest entry and committed together with the last batch. Live
+     * ingest (watermark present) also runs near-duplicate detection and queues
+     * image enrichment; offline imports skip both, since they must not touch
+     * the network and the near-duplicate window scan does not scale to
+     * archive-sized loads. Offline batches are written as plain JDBC batches.
+     */
+    List<NewsArticle> ingestEntries(List<FeedEntry> entries, String sourceName,
+                                    SourceCollectionResult result, FeedWatermark watermark) {
+        boolean live = watermark != null;
+        List<NewsArticle> newArticles = new ArrayList<>();
+
+        List<String> canonicalUrls = new ArrayList<>();
+        for (FeedEntry entry : entries) {
+            canonicalUrls.add(UrlCanonicalizer.canonicalize(entry.getLink()));
+        }
+        Set<String> newUrls = deduplicationService.filterNewUrls(canonicalUrls);
+
+        for (int i = 0; i < entries.size(); i++) {
+            FeedEntry entry = entries.get(i);
+            String canonicalUrl = canonicalUrls.get(i);
+            if (!newUrls.remove(canonicalUrl)) {
+                continue; // Skip duplicates
+            }
+
+            // Same story under a different URL, e.g. syndicated by another source
+            Long fingerprint = nearDuplicateDetector.fingerprint(entry.getTitle(), entry.getDescription());
+            String duplicateOf = live ? nearDuplicateDetector.checkAndRegister(fingerprint, entry.getLink()) : null;
+            if (duplicateOf != null) {
+                result.setNearDuplicates(result.getNearDuplicates() + 1);
+                System.out.println("Skipping near-duplicate of " + duplicateOf + ": " + entry.getTitle());
+                continue;
+            }
             
-            SyndFeedInput input = new SyndFeedInput();
-            SyndFeed feed = input.build(new XmlReader(new URL(rssUrl)));
+            NewsArticle article = new NewsArticle();
+            article.setTitle(entry.getTitle());
+            article.setUrl(entry.getLink());
+            article.setCanonicalUrl(canonicalUrl);
+            article.setContentFingerprint(fingerprint);
+            article.setSource(sourceName);
             
-            for (SyndEntry entry : feed.getEntries()) {
-                if (articleRepository.existsByUrl(entry.getLink())) {
-                    continue; // Skip duplicates
+            // Handle description
+            if (entry.getDescription() != null) {
+                String desc = entry.getDescription();
+                if (desc.length() > 2000) {
+                    desc = desc.substring(0, 1997) + "...";
                 }
-                
-                NewsArticle article = new NewsArticle();
-                article.setTitle(entry.getTitle());
-                article.setUrl(entry.getLink());
-                article.setSource(sourceName);
-                
-                // Handle description
-                if (entry.getDescription() != null) {
-                    String desc = entry.getDescription().getValue();
-                    if (desc.length() > 2000) {
-                        desc = desc.substring(0, 1997) + "...";
-                    }
-                    article.setDescription(desc);
-                } else {
-                    article.setDescription("");
-                }
-                
-                // Extract image URL using multiple methods
-                String imageUrl = extractImageUrl(entry);
-                article.setImageUrl(imageUrl);
-                
-                // Handle date
-                if (entry.getPublishedDate() != null) {
-                    article.setPublishedDate(
-                        LocalDateTime.ofInstant(entry.getPublishedDate().toInstant(), ZoneId.systemDefault())
-                    );
-                } else {
-                    article.setPublishedDate(LocalDateTime.now());
-                }
-                
-                newArticles.add(article);
+                article.setDescription(desc);
+            } else {
+                article.setDescription("");
             }
+            normalizationService.normalize(article);
+            
+            // Cheap in-feed image lookups only; page fetches happen in the background
+            String imageUrl = extractImageUrl(entry);
+            article.setImageUrl(imageUrl);
             
-            if (!newArticles.isEmpty()) {
-                articleRepository.saveAll(newArticles);
-                System.out.println("Saved " + newArticles.size() + " new articles from " + sourceName);
+            // Handle date
+            if (entry.getPublishedDate() != null) {
+                article.setPublishedDate(
+                    LocalDateTime.ofInstant(entry.getPublishedDate(), ZoneId.systemDefault())
+                );
+            } else {
+                article.setPublishedDate(LocalDateTime.now());
+            }
+            if (!live) {
+                // Archive entries are not today's intake: date them by publication so the
+                // createdAt-based recent-article queries skip them (undated ones get no date)
+                article.setCreatedAt(entry.getPublishedDate() != null ? article.getPublishedDate() : null);
             }
             
-        } catch (Exception e) {
-            System.err.println("Error fetching RSS from " + sourceName + ": " + e.getMessage());
-            e.printStackTrace();
+            newArticles.add(article);
         }
         
+        boolean advanced = live && advanceWatermark(watermark, entries);
+        int batchSize = live ? persistBatchSize : bulkBatchSize;
+        int saved = 0;
+        try {
+            for (int from = 0; from < newArticles.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, newArticles.size());
+                List<NewsArticle> batch = newArticles.subList(from, to);
+                if (!live) {
+                    articlePersistenceService.insertBatch(batch);
+                } else if (advanced && to == newArticles.size()) {
+                    articlePersistenceService.saveBatch(batch, watermark);
+                } else {
+                    articlePersistenceService.saveBatch(batch);
+                }
+                saved = to;
+                deduplicationService.markSaved(batch.stream().map(NewsArticle::getCanonicalUrl).toList());
+                if (live) {
+                    imageEnrichmentService.enqueue(batch);
+                    ingestEnrichmentService.publish(batch);
+                    embeddingStore.add(batch);
+                }
+            }
+        } finally {
+            if (live) {
+                // Fingerprints of articles that never reached the database must not block their next poll
+                for (NewsArticle unsaved : newArticles.subList(saved, newArticles.size())) {
+                    nearDuplicateDetector.unregister(unsaved.getContentFingerprint(), unsaved.getUrl());
+                }
+            }
+        }
+        if (advanced && newArticles.isEmpty()) {
+            // Only duplicates above the watermark; still move it so they are not re-checked
+            watermarkRepository.save(watermark);
+        }
+        if (!newArticles.isEmpty()) {
+            System.out.println("Saved " + newArticles.size() + " new articles from " + sourceName);
+        }
+
         return newArticles;
     }
+
+    /**
+     * Moves the watermark to the newest dated entry; returns false if nothing
+     * is newer. Entries dated in the future (clock or time zone errors) are
+     * ignored, since a watermark past now would hide every entry until then.
+     */
+    private boolean advanceWatermark(FeedWatermark watermark, List<FeedEntry> entries) {
+        Instant latestTrusted = latestTrustedDate().atZone(ZoneId.systemDefault()).toInstant();
+        FeedEntry newest = null;
+        for (FeedEntry entry : entries) {
+            if (entry.getPublishedDate() != null
+                    && !entry.getPublishedDate().isAfter(latestTrusted)
+                    && (newest == null || entry.getPublishedDate().isAfter(newest.getPublishedDate()))) {
+                newest = entry;
+            }
+        }
+        if (newest == null) {
+            return false;
+        }
+        LocalDateTime published = LocalDateTime.ofInstant(newest.getPublishedDate(), ZoneId.systemDefault());
+        if (watermark.getLatestPublishedAt() != null && !published.isAfter(watermark.getLatestPublishedAt())) {
+            return false;
+        }
+        watermark.setLatestPublishedAt(published);
+        watermark.setLatestGuid(entryKey(newest));
+        watermark.setUpdatedAt(LocalDateTime.now());
+        return true;
+    }
+
+    /** Latest publication date a watermark may hold: now, allowing for clock skew between servers. */
+    private LocalDateTime latestTrustedDate() {
+        return LocalDateTime.now().plus(WATERMARK_CLOCK_SKEW);
+    }
+
+    /**
+     * Parses a fetched feed with the configured parser. The streaming parser
+     * stops reading at entries older than the feed's watermark; Rome
+     * materializes the whole feed.
+     */
+    private List<FeedEntry> parseEntries(FeedFetchResponse response, FeedWatermark watermark) throws Exception {
+        if ("stax".equalsIgnoreCase(parserMode)) {
+            LocalDateTime latest = watermark.getLatestPublishedAt();
+            Instant stopBefore = latest != null ? latest.atZone(ZoneId.systemDefault()).toInstant() : null;
+            return staxFeedParser.parse(new ByteArrayInputStream(response.getBody()), stopBefore);
+        }
+
+        SyndFeedInput input = new SyndFeedInput();
+        SyndFeed feed = input.build(new XmlReader(new ByteArrayInputStream(response.getBody()), response.getContentType(), true));
+
+        List<FeedEntry> entries = new ArrayList<>();
+        for (SyndEntry syndEntry : feed.getEntries()) {
+            FeedEntry entry = new FeedEntry();
+            entry.setTitle(syndEntry.getTitle());
+            entry.setLink(syndEntry.getLink());
+            entry.setGuid(syndEntry.getUri());
+            if (syndEntry.getDescription() != null) {
+                entry.setDescription(syndEntry.getDescription().getValue());
+            }
+            if (syndEntry.getPublishedDate() != null) {
+                entry.setPublishedDate(syndEntry.getPublishedDate().toInstant());
+            }
+            List<SyndEnclosure> enclosures = syndEntry.getEnclosures();
+            if (enclosures != null) {
+                for (SyndEnclosure enclosure : enclosures) {
+                    if (enclosure.getType() != null && enclosure.getType().startsWith("image/")) {
+                        entry.setEnclosureImageUrl(enclosure.getUrl());
+                        break;
+                    }
+                }
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
     
-   
-    
-   private String extractImageUrl(SyndEntry entry) {
+   private String extractImageUrl(FeedEntry entry) {
     String imageUrl = null;
     
     // Method 1: Check for enclosures (media attachments)
-    List<SyndEnclosure> enclosures = entry.getEnclosures();
-    if (enclosures != null && !enclosures.isEmpty()) {
-        for (SyndEnclosure enclosure : enclosures) {
-            if (enclosure.getType() != null && enclosure.getType().startsWith("image/")) {
-                imageUrl = enclosure.getUrl();
-                System.out.println("✓ Found image in enclosure: " + imageUrl);
-                break;
-            }
-        }
+    if (entry.getEnclosureImageUrl() != null) {
+        imageUrl = entry.getEnclosureImageUrl();
+        System.out.println("✓ Found image in enclosure: " + imageUrl);
     }
     
     // Method 2: Parse image from description HTML
     if (imageUrl == null && entry.getDescription() != null) {
-        imageUrl = extractImageFromDescription(entry.getDescription().getValue());
+        imageUrl = extractImageFromDescription(entry.getDescription());
         if (imageUrl != null) {
             System.out.println("✓ Found image in description: " + imageUrl);
         }
     }
     
-    // Method 3: Fetch from article page (og:image)
     if (imageUrl == null) {
-        imageUrl = getImageFromArticlePage(entry.getLink());
-        if (imageUrl != null) {
-            System.out.println("✓ Found og:image from page: " + imageUrl);
-        }
-    }
-    
-    if (imageUrl == null) {
-        System.out.println("✗ No image found for: " + entry.getTitle());
+        System.out.println("✗ No image in feed entry, deferring page lookup for: " + entry.getTitle());
     }
     
     return imageUrl;
@@ -144,61 +405,130 @@ private String extractImageFromDescription(String description) {
     return null;
 }
 
-private String getImageFromArticlePage(String articleUrl) {
-    try {
-        System.out.println("Fetching og:image from: " + articleUrl);
-        Document doc = Jsoup.connect(articleUrl)
-            .timeout(5000)
-            .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
-            .get();
-        
-        // Try og:image first
-        Element ogImage = doc.select("meta[property=og:image]").first();
-        if (ogImage != null) {
-            String content = ogImage.attr("content");
-            if (content.startsWith("http")) {
-                return content;
+    public int collectFromAllSources() {
+        return collectFromAllSourcesWithReport().getTotalCollected();
+    }
+
+    public CollectionReport collectFromAllSourcesWithReport() {
+        return collectSources(feedSourceService.getEnabledSources());
+    }
+
+    /**
+     * Collects the given sources concurrently, one virtual thread per feed, and
+     * merges the per-source outcomes into a single report. At the run deadline
+     * the remaining collections are interrupted and given a short grace period.
+     * Interrupts do not stop blocking socket reads or JDBC calls, so a source
+     * still running after that is reported as timed out but not scheduled yet:
+     * it records its real outcome when it finishes, and later runs skip it
+     * until then. Every other outcome is fed back into the polling schedule.
+     */
+    public CollectionReport collectSources(List<FeedSource> sources) {
+        CollectionReport report = new CollectionReport();
+        long deadlineMs = TimeUnit.SECONDS.toMillis(collectDeadlineSeconds);
+        report.setDeadlineMs(deadlineMs);
+
+        long start = System.currentTimeMillis();
+        long deadline = start + deadlineMs;
+
+        List<FeedSource> collecting = new ArrayList<>();
+        for (FeedSource source : sources) {
+            if (source.getId() != null && !activeSources.add(source.getId())) {
+                System.out.println("Skipping " + source.getName() + ": an earlier collection is still running");
+                continue;
             }
+            collecting.add(source);
         }
-        
-        // Try twitter:image
-        Element twitterImage = doc.select("meta[name=twitter:image]").first();
-        if (twitterImage != null) {
-            String content = twitterImage.attr("content");
-            if (content.startsWith("http")) {
-                return content;
+
+        List<SourceCollectionResult> results = new ArrayList<>();
+        // Set by whichever of the task and this run takes charge of recording the source's poll
+        List<AtomicBoolean> claims = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (FeedSource source : collecting) {
+                SourceCollectionResult result = new SourceCollectionResult(source.getName(), source.getUrl());
+                result.setSourceId(source.getId());
+                AtomicBoolean claim = new AtomicBoolean();
+                results.add(result);
+                claims.add(claim);
+                futures.add(executor.submit(() -> collectSource(source, result, claim)));
             }
+
+            for (Future<?> future : futures) {
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                future.get(remaining, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            System.err.println("Collection run exceeded its " + deadlineMs + " ms deadline");
+        } catch (ExecutionException e) {
+            // collectSource records its own failures
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        try {
+            executor.awaitTermination(shutdownGraceSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        
-    } catch (Exception e) {
-        System.err.println("Error fetching image from article page: " + e.getMessage());
-    }
-    return null;
-}
-    
-    public int collectFromAllSources() {
-        int totalCollected = 0;
-        
-        List<NewsArticle> techcrunchArticles = fetchArticlesFromRSS(
-            "https://techcrunch.com/feed/", "TechCrunch"
-        );
-        totalCollected += techcrunchArticles.size();
-        
-        List<NewsArticle> vergeArticles = fetchArticlesFromRSS(
-            "https://www.theverge.com/rss/index.xml", "The Verge"
-        );
 
-        totalCollected += vergeArticles.size();
+        for (FeedSource unsubmitted : collecting.subList(futures.size(), collecting.size())) {
+            if (unsubmitted.getId() != null) {
+                activeSources.remove(unsubmitted.getId());
+            }
+        }
+        collecting = collecting.subList(0, futures.size());
 
-        List<NewsArticle> wiredArticles=fetchArticlesFromRSS(
-            "https://www.wired.com/feed/tag/ai/latest/rss", "Wired");
+        for (int i = 0; i < collecting.size(); i++) {
+            SourceCollectionResult result = results.get(i);
+            if (claims.get(i).compareAndSet(false, true)) {
+                // Still running; its task records the poll once it ends
+                result.setTimedOut(true);
+                result.setDurationMs(System.currentTimeMillis() - start);
+                result.setError("Timed out after " + deadlineMs + " ms");
+                System.err.println("Collection from " + result.getSource() + " exceeded the run deadline");
+            } else {
+                recordPoll(collecting.get(i), result);
+            }
+            report.getSources().add(result);
+        }
 
-            totalCollected+=wiredArticles.size();
+        report.setDurationMs(System.currentTimeMillis() - start);
+        System.out.println("Collected " + report.getTotalCollected() + " articles from " + collecting.size()
+            + " sources in " + report.getDurationMs() + " ms (" + report.getFailedSources() + " failed)");
+        return report;
+    }
 
-        List<NewsArticle>microsoftArticles=fetchArticlesFromRSS(
-            "https://devblogs.microsoft.com/java/feed/", "Microsoft Dev Blogs");
-            totalCollected+=microsoftArticles.size();
-        
-        return totalCollected;
+    private void collectSource(FeedSource source, SourceCollectionResult result, AtomicBoolean claim) {
+        long sourceStart = System.currentTimeMillis();
+        try {
+            List<NewsArticle> articles = collectFeed(source.getUrl(), source.getName(), result);
+            result.setArticlesCollected(articles.size());
+            result.setSuccess(true);
+        } catch (Exception e) {
+            result.setError(e.getMessage());
+            System.err.println("Error fetching RSS from " + source.getName() + ": " + e.getMessage());
+        } finally {
+            if (claim.compareAndSet(false, true)) {
+                result.setDurationMs(System.currentTimeMillis() - sourceStart);
+            } else {
+                // The run has already reported this source as timed out
+                System.out.println("Collection from " + source.getName() + " finished after the run deadline ("
+                    + (result.isSuccess() ? result.getArticlesCollected() + " articles" : "failed") + ")");
+                recordPoll(source, result);
+            }
+            if (source.getId() != null) {
+                activeSources.remove(source.getId());
+            }
+        }
     }
-}
\ No newline at end of file
+
+    private void recordPoll(FeedSource source, SourceCollectionResult result) {
+        try {
+            feedSourceService.recordPoll(source, result);
+        } catch (Exception e) {
+            System.err.println("Error updating schedule for " + source.getName() + ": " + e.getMessage());
+        }
+    }
+}
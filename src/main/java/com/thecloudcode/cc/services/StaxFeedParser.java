@@ -0,0 +1,219 @@
+package com.thecloudcode.cc.services;
+
+import com.thecloudcode.cc.dto.FeedEntry;
+
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming RSS 2.0 / RSS 1.0 / Atom parser. Reads only the fields ingest
+ * uses and never builds a document tree, and can stop as soon as it reaches
+ * entries older than a cutoff, since feeds list their newest entries first.
+ */
+@Component
+public class StaxFeedParser {
+
+    private static final String MEDIA_NS = "http://search.yahoo.com/mrss/";
+    private static final String DC_NS = "http://purl.org/dc/elements/1.1/";
+
+    private static final DateTimeFormatter RFC_822_LENIENT =
+        DateTimeFormatter.ofPattern("[EEE, ]d MMM yyyy HH:mm[:ss] [zzz][Z][X]", Locale.ENGLISH);
+
+    private final XMLInputFactory inputFactory;
+
+    public StaxFeedParser() {
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Parses entries in document order. When {@code stopBefore} is set, parsing
+     * ends at the first dated entry published before it.
+     */
+    public List<FeedEntry> parse(InputStream in, Instant stopBefore) throws XMLStreamException {
+        List<FeedEntry> entries = new ArrayList<>();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if (!name.equals("item") && !name.equals("entry")) {
+                    continue;
+                }
+                FeedEntry entry = readEntry(reader, name);
+                if (stopBefore != null && entry.getPublishedDate() != null
+                        && entry.getPublishedDate().isBefore(stopBefore)) {
+                    break;
+                }
+                entries.add(entry);
+            }
+        } finally {
+            reader.close();
+        }
+        return entries;
+    }
+
+    private FeedEntry readEntry(XMLStreamReader reader, String entryElement) throws XMLStreamException {
+        FeedEntry entry = new FeedEntry();
+        String updated = null;
+        String atomSummary = null;
+        String atomContent = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(entryElement)) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            String name = reader.getLocalName();
+            String namespace = reader.getNamespaceURI();
+            if (MEDIA_NS.equals(namespace)) {
+                if (name.equals("content") || name.equals("thumbnail")) {
+                    captureImage(reader, entry);
+                }
+                skipElement(reader);
+                continue;
+            }
+            if (DC_NS.equals(namespace)) {
+                if (name.equals("date") && entry.getPublishedDate() == null) {
+                    entry.setPublishedDate(parseDate(readText(reader)));
+                } else {
+                    skipElement(reader);
+                }
+                continue;
+            }
+
+            switch (name) {
+                case "title" -> entry.setTitle(readText(reader));
+                case "link" -> {
+                    // Atom links carry the URL in href; RSS links in the element text
+                    String href = reader.getAttributeValue(null, "href");
+                    if (href != null) {
+                        String rel = reader.getAttributeValue(null, "rel");
+                        if ((rel == null || rel.equals("alternate")) && entry.getLink() == null) {
+                            entry.setLink(href);
+                        }
+                        skipElement(reader);
+                    } else {
+                        String text = readText(reader);
+                        if (!text.isEmpty()) {
+                            entry.setLink(text);
+                        }
+                    }
+                }
+                case "guid", "id" -> entry.setGuid(readText(reader));
+                case "description" -> entry.setDescription(readText(reader));
+                case "summary" -> atomSummary = readText(reader);
+                case "content" -> atomContent = readText(reader);
+                case "pubDate", "published" -> entry.setPublishedDate(parseDate(readText(reader)));
+                case "updated" -> updated = readText(reader);
+                case "enclosure" -> {
+                    captureImage(reader, entry);
+                    skipElement(reader);
+                }
+                default -> skipElement(reader);
+            }
+        }
+
+        if (entry.getDescription() == null) {
+            entry.setDescription(atomSummary != null ? atomSummary : atomContent);
+        }
+        if (entry.getPublishedDate() == null && updated != null) {
+            entry.setPublishedDate(parseDate(updated));
+        }
+        if (entry.getLink() == null && entry.getGuid() != null && entry.getGuid().startsWith("http")) {
+            entry.setLink(entry.getGuid());
+        }
+        return entry;
+    }
+
+    private void captureImage(XMLStreamReader reader, FeedEntry entry) {
+        if (entry.getEnclosureImageUrl() != null) {
+            return;
+        }
+        String url = reader.getAttributeValue(null, "url");
+        String type = reader.getAttributeValue(null, "type");
+        String medium = reader.getAttributeValue(null, "medium");
+        boolean image = reader.getLocalName().equals("thumbnail")
+            || (type != null && type.startsWith("image/"))
+            || "image".equals(medium);
+        if (url != null && image) {
+            entry.setEnclosureImageUrl(url);
+        }
+    }
+
+    /**
+     * Returns the text content of the current element, flattening any nested
+     * markup (e.g. Atom xhtml content), and leaves the reader on its end tag.
+     */
+    private String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                    text.append(reader.getText());
+                default -> { }
+            }
+        }
+        return text.toString().trim();
+    }
+
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    static Instant parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            return OffsetDateTime.parse(text).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // not ISO-8601, try RFC 822 below
+        }
+        try {
+            return ZonedDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // fall through to the lenient pattern
+        }
+        try {
+            return ZonedDateTime.parse(text, RFC_822_LENIENT).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
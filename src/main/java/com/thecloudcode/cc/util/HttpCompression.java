@@ -0,0 +1,42 @@
+package com.thecloudcode.cc.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decoding of gzip/deflate response bodies for connections that ask for
+ * compression themselves.
+ */
+public final class HttpCompression {
+
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private HttpCompression() {
+    }
+
+    public static InputStream decode(InputStream raw, String contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return raw;
+        }
+        String encoding = contentEncoding.trim().toLowerCase();
+        if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+            return new GZIPInputStream(raw);
+        }
+        if (encoding.equals("deflate")) {
+            // Servers disagree on whether "deflate" carries a zlib header; sniff the first byte
+            PushbackInputStream pushback = new PushbackInputStream(raw, 1);
+            int first = pushback.read();
+            if (first == -1) {
+                return pushback;
+            }
+            pushback.unread(first);
+            boolean zlibWrapped = (first & 0x0F) == 8;
+            return new InflaterInputStream(pushback, new Inflater(!zlibWrapped));
+        }
+        return raw;
+    }
+}
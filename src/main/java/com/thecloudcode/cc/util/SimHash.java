@@ -0,0 +1,85 @@
+package com.thecloudcode.cc.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 64-bit SimHash over word unigrams and bigrams. Texts that share most of
+ * their wording end up a small Hamming distance apart.
+ */
+public final class SimHash {
+
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+    private static final Pattern ENTITIES = Pattern.compile("&[a-zA-Z#0-9]+;");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private SimHash() {
+    }
+
+    /**
+     * Returns the fingerprint of {@code text}, or {@code null} when it has
+     * fewer than {@code minTokens} words and would collide too easily.
+     */
+    public static Long fingerprint(String text, int minTokens) {
+        List<String> tokens = tokenize(text);
+        if (tokens.size() < minTokens) {
+            return null;
+        }
+
+        int[] weights = new int[64];
+        for (int i = 0; i < tokens.size(); i++) {
+            addFeature(weights, tokens.get(i));
+            if (i + 1 < tokens.size()) {
+                addFeature(weights, tokens.get(i) + " " + tokens.get(i + 1));
+            }
+        }
+
+        long fingerprint = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String plain = ENTITIES.matcher(TAGS.matcher(text).replaceAll(" ")).replaceAll(" ");
+        for (String token : NON_WORD.split(plain.toLowerCase(Locale.ROOT))) {
+            if (token.length() > 1) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addFeature(int[] weights, String feature) {
+        long hash = hash64(feature);
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1L) == 1L ? 1 : -1;
+        }
+    }
+
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
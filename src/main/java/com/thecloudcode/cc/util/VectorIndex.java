@@ -0,0 +1,143 @@
+package com.thecloudcode.cc.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Exhaustive nearest-neighbour index over unit vectors. All vectors live in
+ * one flat float array, row after row, so a query is a single sequential scan
+ * of dot products (equal to cosine similarity for normalized vectors) with a
+ * bounded heap for the top k. Beyond {@code capacity} the oldest vector is
+ * evicted. Not thread-safe; callers synchronize.
+ */
+public class VectorIndex {
+
+    public record Match(long id, float similarity) { }
+
+    private final int dimensions;
+    private final int capacity;
+
+    private float[] vectors;
+    private long[] ids;
+    private int size;
+    private final Map<Long, Integer> rowById = new HashMap<>();
+    private final Deque<Long> insertionOrder = new ArrayDeque<>();
+
+    public VectorIndex(int dimensions, int capacity) {
+        this.dimensions = dimensions;
+        this.capacity = capacity;
+        int initialRows = Math.min(capacity, 1024);
+        this.vectors = new float[initialRows * dimensions];
+        this.ids = new long[initialRows];
+    }
+
+    /** Adds or replaces the vector for {@code id}. */
+    public void put(long id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        Integer row = rowById.get(id);
+        if (row == null) {
+            if (size == capacity) {
+                remove(insertionOrder.peekFirst());
+            }
+            if (size == ids.length) {
+                int rows = Math.min(capacity, ids.length * 2);
+                vectors = Arrays.copyOf(vectors, rows * dimensions);
+                ids = Arrays.copyOf(ids, rows);
+            }
+            row = size++;
+            ids[row] = id;
+            rowById.put(id, row);
+            insertionOrder.addLast(id);
+        }
+        System.arraycopy(vector, 0, vectors, row * dimensions, dimensions);
+    }
+
+    public boolean contains(long id) {
+        return rowById.containsKey(id);
+    }
+
+    /** Copy of the stored vector for {@code id}, or null. */
+    public float[] get(long id) {
+        Integer row = rowById.get(id);
+        if (row == null) {
+            return null;
+        }
+        return Arrays.copyOfRange(vectors, row * dimensions, (row + 1) * dimensions);
+    }
+
+    /** Removes {@code id} by moving the last row into its place. */
+    public void remove(Long id) {
+        Integer row = id != null ? rowById.remove(id) : null;
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            System.arraycopy(vectors, last * dimensions, vectors, row * dimensions, dimensions);
+            ids[row] = ids[last];
+            rowById.put(ids[row], row);
+        }
+        insertionOrder.remove(id);
+    }
+
+    /**
+     * The {@code k} stored vectors most similar to {@code query}, best first,
+     * skipping {@code excludeId} (pass a missing id to keep everything).
+     */
+    public List<Match> topK(float[] query, int k, long excludeId) {
+        PriorityQueue<Match> best = new PriorityQueue<>(k + 1, (a, b) -> Float.compare(a.similarity(), b.similarity()));
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == excludeId) {
+                continue;
+            }
+            float similarity = dot(query, row * dimensions);
+            if (best.size() < k) {
+                best.add(new Match(ids[row], similarity));
+            } else if (k > 0 && similarity > best.peek().similarity()) {
+                best.poll();
+                best.add(new Match(ids[row], similarity));
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort((a, b) -> Float.compare(b.similarity(), a.similarity()));
+        return matches;
+    }
+
+    /**
+     * Four independent accumulators: a single running sum is one long chain of
+     * dependent additions, which the JIT may not reorder for floats.
+     */
+    private float dot(float[] query, int offset) {
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int i = 0;
+        for (; i + 3 < dimensions; i += 4) {
+            s0 += query[i] * vectors[offset + i];
+            s1 += query[i + 1] * vectors[offset + i + 1];
+            s2 += query[i + 2] * vectors[offset + i + 2];
+            s3 += query[i + 3] * vectors[offset + i + 3];
+        }
+        for (; i < dimensions; i++) {
+            s0 += query[i] * vectors[offset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+}
@@ -0,0 +1,170 @@
+package com.thecloudcode.cc.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.thecloudcode.cc.dto.CollectionReport;
+import com.thecloudcode.cc.dto.FeedFetchResponse;
+import com.thecloudcode.cc.models.FeedSource;
+import com.thecloudcode.cc.repository.FeedSourceRepository;
+import com.thecloudcode.cc.repository.NewsArticleRepository;
+
+/**
+ * Shows that a slow feed download no longer keeps a pooled connection checked
+ * out: the longest connection hold during collection must stay well below the
+ * time spent fetching.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:holdtest",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.mail.username=test@example.com",
+    "spring.mail.password=test",
+    "openai.api.key=test-key",
+    "admin.allowed.ips=127.0.0.1",
+    "cors.allowed-origins=http://localhost:3000",
+    "rss.scheduler.enabled=false"
+})
+class RSSCollectorServiceConnectionHoldTests {
+
+    private static final long FETCH_DELAY_MS = 1500;
+
+    private static final AtomicLong maxHoldMs = new AtomicLong();
+
+    @Autowired
+    private RSSCollectorService rssCollectorService;
+
+    @Autowired
+    private FeedSourceRepository feedSourceRepository;
+
+    @Autowired
+    private NewsArticleRepository articleRepository;
+
+    @MockitoBean
+    private FeedHttpClient feedHttpClient;
+
+    @Test
+    void slowFeedFetchDoesNotHoldAConnection() throws Exception {
+        String feedUrl = "https://feeds.example.test/slow.xml";
+        when(feedHttpClient.fetch(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(FETCH_DELAY_MS);
+            FeedFetchResponse response = new FeedFetchResponse();
+            response.setFeedUrl(feedUrl);
+            response.setStatus(200);
+            response.setContentType("application/rss+xml; charset=UTF-8");
+            response.setBody(sampleFeed().getBytes(StandardCharsets.UTF_8));
+            return response;
+        });
+
+        FeedSource source = feedSourceRepository.save(new FeedSource("Slow Feed", feedUrl));
+        maxHoldMs.set(0);
+
+        long start = System.currentTimeMillis();
+        CollectionReport report = rssCollectorService.collectSources(List.of(source));
+        long elapsed = System.currentTimeMillis() - start;
+
+        System.out.println("Collection took " + elapsed + " ms, longest connection hold " + maxHoldMs.get() + " ms");
+
+        assertThat(report.getTotalCollected()).isEqualTo(3);
+        assertThat(articleRepository.findBySourceOrderByPublishedDateDesc("Slow Feed")).hasSize(3);
+        assertThat(elapsed).isGreaterThanOrEqualTo(FETCH_DELAY_MS);
+        assertThat(maxHoldMs.get()).isLessThan(FETCH_DELAY_MS / 3);
+    }
+
+    private static String sampleFeed() {
+        String now = ZonedDateTime.now().format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        StringBuilder feed = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"><channel><title>Slow</title>");
+        String[] stories = {
+            "Researchers demonstrate entanglement distribution across a metropolitan fiber network spanning forty kilometres",
+            "Postgres maintainers merge an asynchronous input output subsystem that changes how vacuum and sequential scans behave",
+            "Browser vendors agree on a shared interop benchmark covering layout, scrolling, forms and web components this year"
+        };
+        for (int i = 0; i < stories.length; i++) {
+            feed.append("<item><title>").append(stories[i], 0, stories[i].indexOf(' ', 30)).append("</title>")
+                .append("<link>https://feeds.example.test/story-").append(i).append("</link>")
+                .append("<description><![CDATA[<img src=\"https://img.example.test/").append(i)
+                .append(".png\"/> ").append(stories[i]).append("]]></description>")
+                .append("<pubDate>").append(now).append("</pubDate></item>");
+        }
+        return feed.append("</channel></rss>").toString();
+    }
+
+    @TestConfiguration
+    static class ConnectionTimingConfig {
+
+        @Bean
+        static BeanPostProcessor connectionTimingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof TimingDataSource)) {
+                        return new TimingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    /** Records how long each connection is held between checkout and close. */
+    static class TimingDataSource extends DelegatingDataSource {
+
+        TimingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return track(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return track(super.getConnection(username, password));
+        }
+
+        private Connection track(Connection connection) {
+            long checkedOut = System.currentTimeMillis();
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        maxHoldMs.accumulateAndGet(System.currentTimeMillis() - checkedOut, Math::max);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        }
+    }
+}